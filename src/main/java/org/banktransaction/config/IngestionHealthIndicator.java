@@ -0,0 +1,31 @@
+package org.banktransaction.config;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.IngestionStatus;
+import org.banktransaction.service.StartupIngestion;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service until the startup ingestion completed, part of the readiness group so the application gets no
+ * traffic while its data is incomplete.
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestionHealthIndicator implements HealthIndicator {
+    private final StartupIngestion startupIngestion;
+
+    @Override
+    public Health health() {
+        IngestionStatus status = startupIngestion.getStatus();
+        Health.Builder health = startupIngestion.isCompleted() ? Health.up() : Health.outOfService();
+        health.withDetail("state", status.getState())
+                .withDetail("percent", status.getPercent())
+                .withDetail("rowsWritten", status.getRowsWritten());
+        if (status.getError() != null) {
+            health.withDetail("error", status.getError());
+        }
+        return health.build();
+    }
+}
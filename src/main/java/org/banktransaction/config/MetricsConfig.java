@@ -0,0 +1,23 @@
+package org.banktransaction.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-request allocation and GC metrics, on unless {@code metrics.request-resources.enabled} is false.
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "metrics.request-resources.enabled", havingValue = "true", matchIfMissing = true)
+public class MetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry registry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new RequestResourceInterceptor(registry)).excludePathPatterns("/actuator/**");
+    }
+}
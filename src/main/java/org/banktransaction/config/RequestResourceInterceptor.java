@@ -0,0 +1,88 @@
+package org.banktransaction.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the bytes a request allocated on its thread and the collector time that passed while it ran, per
+ * endpoint. Allocation is only measured on JVMs whose {@link ThreadMXBean} reports it.
+ */
+public class RequestResourceInterceptor implements HandlerInterceptor {
+    private static final String START = RequestResourceInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+    private final com.sun.management.ThreadMXBean threads;
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    public RequestResourceInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+        this.threads = allocationCountingThreads();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long threadId = Thread.currentThread().getId();
+        request.setAttribute(START, new long[]{threadId, allocatedBytes(threadId), collectionMillis()});
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long[] start = (long[]) request.getAttribute(START);
+        if (start == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        long threadId = Thread.currentThread().getId();
+        if (threads != null && threadId == start[0]) {
+            DistributionSummary.builder("http.server.requests.allocated")
+                    .description("Bytes allocated by the request thread")
+                    .baseUnit("bytes")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(registry)
+                    .record(allocatedBytes(threadId) - start[1]);
+        }
+        Timer.builder("http.server.requests.gc")
+                .description("Garbage collection time that overlapped the request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(registry)
+                .record(collectionMillis() - start[2], TimeUnit.MILLISECONDS);
+    }
+
+    private long allocatedBytes(long threadId) {
+        return threads == null ? 0 : threads.getThreadAllocatedBytes(threadId);
+    }
+
+    private long collectionMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCountingThreads() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+        if (!sunThreads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        sunThreads.setThreadAllocatedMemoryEnabled(true);
+        return sunThreads;
+    }
+}
@@ -0,0 +1,60 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.AccountSummary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.ShardedTransactionEngine;
+import org.banktransaction.service.TransactionMetrics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates per account from the sharded engine. Without {@code account} they cover every account.
+ */
+@RestController
+@RequestMapping("/api/accounts")
+@RequiredArgsConstructor
+public class AccountController {
+    private final ShardedTransactionEngine engine;
+
+    @GetMapping
+    public List<AccountSummary> getAccounts() {
+        return TransactionMetrics.timeQuery("accounts", engine::getAccounts);
+    }
+
+    @GetMapping("/total-outgoing")
+    public Map<String, BigDecimal> getTotalOutgoingByCategory(@RequestParam(required = false) String account) {
+        return TransactionMetrics.timeQuery("sharded-total-outgoing", () -> engine.getCategoryToOutgoing(account));
+    }
+
+    @GetMapping("/monthly-average")
+    public Map<String, BigDecimal> getMonthlyAverageSpendByCategory(@RequestParam String category,
+                                                                    @RequestParam(required = false) String account) {
+        return TransactionMetrics.timeQuery("sharded-monthly-average",
+                () -> engine.getMonthlyAverageSpendToCategory(category, account));
+    }
+
+    @GetMapping("/highest-spend")
+    public Transaction getHighestSpendByCategoryAndYear(@RequestParam String category, @RequestParam int year,
+                                                        @RequestParam(required = false) String account) {
+        return TransactionMetrics.timeQuery("sharded-highest-spend",
+                        () -> engine.getHighestSpendByCategoryAndYear(year, category, account))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "no spend in " + category + " in " + year));
+    }
+
+    @GetMapping("/lowest-spend")
+    public Transaction getLowestSpendByCategoryAndYear(@RequestParam String category, @RequestParam int year,
+                                                       @RequestParam(required = false) String account) {
+        return TransactionMetrics.timeQuery("sharded-lowest-spend",
+                        () -> engine.getLowestSpendByCategoryAndYear(year, category, account))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "no spend in " + category + " in " + year));
+    }
+}
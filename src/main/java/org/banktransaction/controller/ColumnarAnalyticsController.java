@@ -0,0 +1,47 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.StoreFootprint;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.ColumnarTransactionStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/analytics/columnar")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+public class ColumnarAnalyticsController {
+    private final ColumnarTransactionStore store;
+
+    @GetMapping("/footprint")
+    public StoreFootprint getFootprint() {
+        return store.getFootprint();
+    }
+
+    @GetMapping("/total-outgoing")
+    public Map<String, BigDecimal> getTotalOutgoingByCategory() {
+        return store.getCategoryToOutgoing();
+    }
+
+    @GetMapping("/monthly-average")
+    public Map<String, BigDecimal> getMonthlyAverageSpendByCategory(@RequestParam String category) {
+        return store.getMonthlyAverageSpendToCategory(category);
+    }
+
+    @GetMapping("/highest-spend")
+    public Transaction getHighestSpendByCategoryAndYear(@RequestParam String category, @RequestParam int year) {
+        return store.getHighestSpendByCategoryAndYear(year, category);
+    }
+
+    @GetMapping("/lowest-spend")
+    public Transaction getLowestSpendByCategoryAndYear(@RequestParam String category, @RequestParam int year) {
+        return store.getLowestSpendByCategoryAndYear(year, category);
+    }
+}
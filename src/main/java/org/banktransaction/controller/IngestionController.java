@@ -0,0 +1,30 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.InboxFile;
+import org.banktransaction.dto.IngestionStatus;
+import org.banktransaction.service.InboxWatcher;
+import org.banktransaction.service.StartupIngestion;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ingestion")
+@RequiredArgsConstructor
+public class IngestionController {
+    private final StartupIngestion startupIngestion;
+    private final InboxWatcher inboxWatcher;
+
+    @GetMapping("/status")
+    public IngestionStatus getStatus() {
+        return startupIngestion.getStatus();
+    }
+
+    @GetMapping("/inbox")
+    public List<InboxFile> getInboxFiles() {
+        return inboxWatcher.getFiles();
+    }
+}
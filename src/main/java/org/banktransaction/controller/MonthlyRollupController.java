@@ -0,0 +1,56 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.service.MonthlyRollupService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/monthly-average")
+@RequiredArgsConstructor
+public class MonthlyRollupController {
+    private static final int MAX_MONTHS = 1200;
+
+    private final MonthlyRollupService service;
+
+    @GetMapping
+    public BigDecimal getMonthlyAverageSpend(@RequestParam String category,
+                                             @RequestParam YearMonth from,
+                                             @RequestParam YearMonth to) {
+        checkRange(from, to);
+        return service.getMonthlyAverageSpend(category, from, to);
+    }
+
+    @GetMapping("/rolling")
+    public Map<YearMonth, BigDecimal> getRollingMonthlyAverageSpend(@RequestParam String category,
+                                                                    @RequestParam int months,
+                                                                    @RequestParam YearMonth from,
+                                                                    @RequestParam YearMonth to) {
+        checkRange(from, to);
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "months must be between 1 and " + MAX_MONTHS);
+        }
+        return service.getRollingMonthlyAverageSpend(category, months, from, to);
+    }
+
+    /**
+     * The rolling averages are computed over an array of the months in range, so the range is capped.
+     */
+    private static void checkRange(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (from.plusMonths(MAX_MONTHS - 1L).isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "from and to must be at most " + MAX_MONTHS + " months apart");
+        }
+    }
+}
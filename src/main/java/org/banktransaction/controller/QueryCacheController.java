@@ -0,0 +1,18 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.CacheStats;
+import org.banktransaction.service.QueryResultCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class QueryCacheController {
+    private final QueryResultCache cache;
+
+    @GetMapping("/api/cache/stats")
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
@@ -0,0 +1,105 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.RangeSpend;
+import org.banktransaction.dto.SpendDistribution;
+import org.banktransaction.dto.VendorSpend;
+import org.banktransaction.service.MonthPartitionedStore;
+import org.banktransaction.service.SpendDistributions;
+import org.banktransaction.service.TransactionMetrics;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Spend over any date window, given as {@code from} and {@code to} (ISO dates, {@code to} defaults to today) or as the
+ * last {@code days} days up to {@code to}. Distributions are kept per month, so their window is given in months the
+ * same way.
+ */
+@RestController
+@RequestMapping("/api/spend")
+@RequiredArgsConstructor
+public class SpendController {
+    private static final int MAX_VENDORS = 1000;
+    private static final int MAX_BINS = 200;
+
+    private final MonthPartitionedStore store;
+    private final SpendDistributions distributions;
+
+    @GetMapping
+    public RangeSpend getSpend(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               @RequestParam(required = false) Integer days,
+                               @RequestParam(required = false) String category,
+                               @RequestParam(required = false) String vendor) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = startOf(from, end, days);
+        return TransactionMetrics.timeQuery("range-spend", () -> store.getSpend(start, end, category, vendor));
+    }
+
+    @GetMapping("/vendors")
+    public List<VendorSpend> getTopVendors(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Integer days,
+                                           @RequestParam(required = false) String category,
+                                           @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_VENDORS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_VENDORS);
+        }
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = startOf(from, end, days);
+        return TransactionMetrics.timeQuery("top-vendors", () -> store.getTopVendors(start, end, category, limit));
+    }
+
+    @GetMapping("/distribution")
+    public SpendDistribution getDistribution(@RequestParam(required = false) YearMonth from,
+                                             @RequestParam(required = false) YearMonth to,
+                                             @RequestParam(required = false) Integer months,
+                                             @RequestParam(required = false) String category,
+                                             @RequestParam(defaultValue = "50,90,99") double[] percentiles,
+                                             @RequestParam(defaultValue = "20") int bins) {
+        if (bins < 1 || bins > MAX_BINS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "bins must be between 1 and " + MAX_BINS);
+        }
+        for (double percentile : percentiles) {
+            if (!(percentile >= 0 && percentile <= 100)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "percentiles must be between 0 and 100");
+            }
+        }
+        YearMonth end = to == null ? YearMonth.now() : to;
+        if ((from == null) == (months == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "either from or months is required");
+        }
+        if (months != null && months < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "months must be at least 1");
+        }
+        YearMonth start = from != null ? from : end.minusMonths(months - 1L);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return TransactionMetrics.timeQuery("spend-distribution",
+                () -> distributions.getDistribution(category, start, end, percentiles, bins));
+    }
+
+    private static LocalDate startOf(LocalDate from, LocalDate to, Integer days) {
+        if ((from == null) == (days == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "either from or days is required");
+        }
+        if (days != null && days < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "days must be at least 1");
+        }
+        LocalDate start = from != null ? from : to.minusDays(days - 1L);
+        if (start.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return start;
+    }
+}
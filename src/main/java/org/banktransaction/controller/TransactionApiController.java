@@ -0,0 +1,112 @@
+package org.banktransaction.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.ExportFormat;
+import org.banktransaction.dto.TransactionCursor;
+import org.banktransaction.dto.TransactionPage;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.TransactionExporter;
+import org.banktransaction.service.TransactionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Transactions latest first, paged with keyset cursors on (date, id) instead of offsets, so deep pages cost the same
+ * as the first one and the server holds at most one page whatever the size of the dataset.
+ */
+@RestController
+@RequestMapping("/api/transactions")
+@RequiredArgsConstructor
+public class TransactionApiController {
+    public static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_LIMIT = 1000;
+    private static final int STREAM_BATCH_SIZE = 1000;
+
+    private final TransactionService service;
+    private final TransactionExporter exporter;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public TransactionPage getTransactions(@RequestParam(required = false) String category,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return service.getTransactionsAfter(category, decode(cursor), limit);
+    }
+
+    /**
+     * Every transaction as one json object per line, written and flushed a batch at a time.
+     */
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamTransactions(@RequestParam(required = false) String category,
+                                                                    @RequestParam(required = false) String cursor) {
+        TransactionCursor start = decode(cursor);
+        ObjectWriter writer = objectMapper.writerFor(Transaction.class);
+        StreamingResponseBody body = out -> {
+            TransactionCursor position = start;
+            do {
+                TransactionPage page = service.getTransactionsAfter(category, position, STREAM_BATCH_SIZE);
+                for (Transaction transaction : page.getTransactions()) {
+                    out.write(writer.writeValueAsBytes(transaction));
+                    out.write('\n');
+                }
+                out.flush();
+                position = page.getNextCursor() == null ? null : TransactionCursor.decode(page.getNextCursor());
+            } while (position != null);
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * The transactions of a category and date range, latest first, as a {@code csv} or {@code columnar} file
+     * download. See {@link TransactionExporter} for the formats.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "csv") String format,
+                                                        @RequestParam(required = false) String category,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or columnar");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        StreamingResponseBody body = out -> exporter.export(exportFormat, category, from, to, Channels.newChannel(out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + exportFormat.extension + "\"")
+                .body(body);
+    }
+
+    private static TransactionCursor decode(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            return TransactionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
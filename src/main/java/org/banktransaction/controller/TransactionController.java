@@ -1,145 +1,165 @@
 package org.banktransaction.controller;
 
-import org.banktransaction.dto.TransferData;
 import org.banktransaction.entity.Transaction;
-import org.banktransaction.service.TransactionService;
+import org.banktransaction.service.CachedTransactionQueries;
+import org.banktransaction.service.DataVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.ModelAttribute;
-import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import javax.servlet.http.HttpSession;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+/**
+ * The pages, each a GET whose query parameters are the whole query, e.g. {@code /highest-spend?category=..&year=..},
+ * so no session is kept and any node can serve any request. Pages carry a strong ETag of the {@link DataVersion} and
+ * {@code Cache-Control: no-cache}: a repeated request while the data is unchanged gets a 304 without running the
+ * query or rendering the page.
+ */
 @Controller
 public class TransactionController {
-    TransactionService service;
+    CachedTransactionQueries queries;
+    DataVersion dataVersion;
+    @Value("${transactions.page-size:100}")
+    int pageSize;
 
-    public TransactionController(TransactionService service) {
-        this.service = service;
-        service.readFileAndSaveInRepository(service.fileDir);
+    public TransactionController(CachedTransactionQueries queries, DataVersion dataVersion) {
+        this.queries = queries;
+        this.dataVersion = dataVersion;
     }
 
     @GetMapping("/")
-    public String getTransactionsByCategory(HttpSession session, Model model) {
-        List<Transaction> transactions = service.getAllTransactionFromRepository();
-        if (session.getAttribute("category") != null) {
-            String category = (String) session.getAttribute("category");
-            List<Transaction> transactionsByCategory = service.getTransactionsByCategory(transactions, category);
-            List<Transaction> sortedTransactions = service.sortAsLatestFirst(transactionsByCategory);
-            model.addAttribute("transactions", sortedTransactions);
-        } else {
-            model.addAttribute("transactions", transactions);
+    public String getTransactionsByCategory(@RequestParam(defaultValue = "0") int page,
+                                            @RequestParam(required = false) String category,
+                                            ServletWebRequest request, Model model) {
+        if (notModified(request)) {
+            return null;
         }
-        session.removeAttribute("category");
-        model.addAttribute("categoryName", new String());
-        return "transactions-by-category-page";
-    }
-
-    @PostMapping("/")
-    public String getTransactionsCategory(@ModelAttribute("categoryName") String category, HttpSession session) {
         if (category != null) {
-            session.setAttribute("category", category);
+            model.addAttribute("transactions", queries.getTransactionsByCategory(category));
+        } else {
+            addTransactionsPage(page, model);
         }
-        return "redirect:/";
+        model.addAttribute("category", category);
+        return "transactions-by-category-page";
     }
 
     @GetMapping("/total-outgoing")
-    public String getTotalOutgoingByCategory(HttpSession session, Model model) {
-        List<Transaction> transactions = service.getAllTransactionFromRepository();
-        Map<String, BigDecimal> categoryToAmount = service.getCategoryToOutgoing(transactions);
+    public String getTotalOutgoingByCategory(ServletWebRequest request, Model model) {
+        if (notModified(request)) {
+            return null;
+        }
+        Map<String, BigDecimal> categoryToAmount = queries.getCategoryToOutgoing();
         model.addAttribute("categoryToAmount", categoryToAmount);
         return "total-outgoing-per-category-page";
     }
 
     @GetMapping("/monthly-average")
-    public String getMonthlyAverageSpendByCategory(HttpSession session, Model model) {
-        List<Transaction> transactions = service.getAllTransactionFromRepository();
-        if (session.getAttribute("category") != null) {
-            String category = (String) session.getAttribute("category");
-            Map<String, BigDecimal> categoryToMonthlyAvgSpend = service.getMonthlyAverageSpendToCategory(transactions, category);
-            model.addAttribute("categoryToMonthlyAvgSpend", categoryToMonthlyAvgSpend);
+    public String getMonthlyAverageSpendByCategory(@RequestParam(required = false) String category,
+                                                   ServletWebRequest request, Model model) {
+        if (notModified(request)) {
+            return null;
         }
-        session.removeAttribute("category");
-        model.addAttribute("categoryName", new String());
-        return "monthly-average-spend-by-category-page";
-    }
-
-    @PostMapping("/monthly-average")
-    public String getCategory(@ModelAttribute("categoryName") String category, HttpSession session) {
         if (category != null) {
-            session.setAttribute("category", category);
+            Map<String, BigDecimal> categoryToMonthlyAvgSpend = queries.getMonthlyAverageSpendToCategory(category);
+            model.addAttribute("categoryToMonthlyAvgSpend", categoryToMonthlyAvgSpend);
         }
-        return "redirect:/monthly-average";
+        model.addAttribute("category", category);
+        return "monthly-average-spend-by-category-page";
     }
 
     @GetMapping("/highest-spend")
-    public String getHighestSpendByCategoryAndYear(HttpSession session, Model model) {
+    public String getHighestSpendByCategoryAndYear(@RequestParam(required = false) String category,
+                                                   @RequestParam(required = false) Integer year,
+                                                   ServletWebRequest request, Model model) {
+        if (notModified(request)) {
+            return null;
+        }
         model.addAttribute("isDataFound", true);
-        List<Transaction> transactions = service.getAllTransactionFromRepository();
-        if (session.getAttribute("category") != null && session.getAttribute("year") != null) {
-            String category = (String) session.getAttribute("category");
-            Integer year = (Integer) session.getAttribute("year");
-            Transaction highestSpend = service.getHighestSpendByCategoryAndYear(year, category, transactions);
-            if (highestSpend.getId() != null) {
-                model.addAttribute("transactions", List.of(highestSpend));
+        if (category != null && year != null) {
+            Optional<Transaction> spend = queries.getHighestSpendByCategoryAndYear(year, category);
+            if (spend.isPresent()) {
+                model.addAttribute("transactions", List.of(spend.get()));
             } else {
                 model.addAttribute("isDataFound", false);
             }
         } else {
-            model.addAttribute("transactions", transactions);
+            addTransactionsPage(0, model);
         }
-        session.removeAttribute("category");
-        session.removeAttribute("year");
-        model.addAttribute("transferData", new TransferData());
+        model.addAttribute("category", category);
+        model.addAttribute("year", year);
         return "highest-spend-by-category-and-year-page";
     }
 
-    @PostMapping("/highest-spend")
-    public String getCategoryAndYear(@ModelAttribute("categoryName") String category, @ModelAttribute("year") Integer year, HttpSession session) {
-        if (category != null) {
-            session.setAttribute("category", category);
-        }
-        if (year != null) {
-            session.setAttribute("year", year);
-        }
-        return "redirect:/highest-spend";
-    }
-
     @GetMapping("/lowest-spend")
-    public String getLowestSpendByCategoryAndYear(HttpSession session, Model model) {
+    public String getLowestSpendByCategoryAndYear(@RequestParam(required = false) String category,
+                                                  @RequestParam(required = false) Integer year,
+                                                  ServletWebRequest request, Model model) {
+        if (notModified(request)) {
+            return null;
+        }
         model.addAttribute("isDataFound", true);
-        List<Transaction> transactions = service.getAllTransactionFromRepository();
-        if (session.getAttribute("category") != null && session.getAttribute("year") != null) {
-            String category = (String) session.getAttribute("category");
-            Integer year = (Integer) session.getAttribute("year");
-            Transaction highestSpend = service.getLowestSpendByCategoryAndYear(year, category, transactions);
-            if (highestSpend.getId() != null) {
-                model.addAttribute("transactions", List.of(highestSpend));
+        if (category != null && year != null) {
+            Optional<Transaction> spend = queries.getLowestSpendByCategoryAndYear(year, category);
+            if (spend.isPresent()) {
+                model.addAttribute("transactions", List.of(spend.get()));
             } else {
                 model.addAttribute("isDataFound", false);
             }
         } else {
-            model.addAttribute("transactions", transactions);
+            addTransactionsPage(0, model);
         }
-        session.removeAttribute("category");
-        session.removeAttribute("year");
-        model.addAttribute("transferData", new TransferData());
+        model.addAttribute("category", category);
+        model.addAttribute("year", year);
         return "lowest-spend-by-category-and-year-page";
     }
 
-    @PostMapping("/lowest-spend")
-    public String getCategoryAndYearForLowestTransaction(@ModelAttribute("categoryName") String category, @ModelAttribute("year") Integer year, HttpSession session) {
-        if (category != null) {
-            session.setAttribute("category", category);
+    @GetMapping("/top-spend")
+    public String getTopSpendsByCategoryAndYear(@RequestParam(required = false) String category,
+                                                @RequestParam(required = false) Integer year,
+                                                @RequestParam(required = false) Integer limit,
+                                                ServletWebRequest request, Model model) {
+        if (notModified(request)) {
+            return null;
         }
-        if (year != null) {
-            session.setAttribute("year", year);
+        model.addAttribute("isDataFound", true);
+        model.addAttribute("maxLimit", queries.getTopSpendsCapacity());
+        if (category != null && year != null && limit != null) {
+            List<Transaction> topSpends = queries.getTopSpendsByCategoryAndYear(year, category, limit);
+            if (!topSpends.isEmpty()) {
+                model.addAttribute("transactions", topSpends);
+            } else {
+                model.addAttribute("isDataFound", false);
+            }
+        } else {
+            model.addAttribute("transactions", List.of());
         }
-        return "redirect:/lowest-spend";
+        model.addAttribute("category", category);
+        model.addAttribute("year", year);
+        model.addAttribute("limit", limit);
+        return "top-spend-by-category-and-year-page";
     }
 
+    /**
+     * Sets the ETag and, when the request already has it, the 304 status.
+     */
+    private boolean notModified(ServletWebRequest request) {
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        return request.checkNotModified("\"" + dataVersion.getTag() + "\"");
+    }
+
+    private void addTransactionsPage(int page, Model model) {
+        Page<Transaction> transactions = queries.getTransactionsPage(Math.max(page, 0), pageSize);
+        model.addAttribute("transactions", transactions.getContent());
+        model.addAttribute("page", transactions.getNumber());
+        model.addAttribute("hasNext", transactions.hasNext());
+    }
 }
@@ -0,0 +1,50 @@
+package org.banktransaction.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.TopVendors;
+import org.banktransaction.service.TransactionMetrics;
+import org.banktransaction.service.VendorHeavyHitters;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Top vendors of all time by {@code spend} or {@code count}, overall or in a {@code category}. Estimated from the
+ * vendor sketches unless {@code exact=true}, which ranks every saved transaction instead.
+ */
+@RestController
+@RequestMapping("/api/vendors")
+@RequiredArgsConstructor
+public class VendorController {
+    private static final int MAX_EXACT_VENDORS = 1000;
+
+    private final VendorHeavyHitters heavyHitters;
+
+    @GetMapping("/top")
+    public TopVendors getTopVendors(@RequestParam(defaultValue = "spend") String by,
+                                    @RequestParam(required = false) String category,
+                                    @RequestParam(defaultValue = "10") int limit,
+                                    @RequestParam(defaultValue = "false") boolean exact) {
+        boolean byCount = byCount(by);
+        int maxLimit = exact ? MAX_EXACT_VENDORS : heavyHitters.getCapacity();
+        if (limit < 1 || limit > maxLimit) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxLimit);
+        }
+        return exact
+                ? TransactionMetrics.timeQuery("top-vendors-exact", () -> heavyHitters.getExactTop(category, byCount, limit))
+                : TransactionMetrics.timeQuery("top-vendors-sketch", () -> heavyHitters.getTop(category, byCount, limit));
+    }
+
+    private static boolean byCount(String by) {
+        if ("count".equalsIgnoreCase(by)) {
+            return true;
+        }
+        if ("spend".equalsIgnoreCase(by)) {
+            return false;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "by must be spend or count");
+    }
+}
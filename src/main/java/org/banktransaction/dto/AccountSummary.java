@@ -0,0 +1,15 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class AccountSummary {
+    String account;
+    int shard;
+    long transactions;
+    BigDecimal total;
+}
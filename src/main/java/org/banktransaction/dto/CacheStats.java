@@ -0,0 +1,19 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheStats {
+    int size;
+    int maxSize;
+    long hits;
+    long misses;
+    double hitRate;
+    double missRate;
+    long evictions;
+    long expirations;
+    long invalidations;
+    long dataVersion;
+}
@@ -0,0 +1,17 @@
+package org.banktransaction.dto;
+
+/**
+ * Formats of {@code TransactionExporter}.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    COLUMNAR("application/octet-stream", "btxc");
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public final String contentType;
+    public final String extension;
+}
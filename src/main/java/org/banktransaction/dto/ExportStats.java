@@ -0,0 +1,14 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExportStats {
+    ExportFormat format;
+    long rows;
+    long bytes;
+    long elapsedMillis;
+    double rowsPerSecond;
+}
@@ -0,0 +1,14 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class HistogramBin {
+    BigDecimal lower;
+    BigDecimal upper;
+    long transactions;
+}
@@ -0,0 +1,17 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class InboxFile {
+    String file;
+    long size;
+    IngestionStatus.State state;
+    Instant finishedAt;
+    String error;
+    IngestionStats stats;
+}
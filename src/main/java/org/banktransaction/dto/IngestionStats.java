@@ -0,0 +1,18 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class IngestionStats {
+    long rows;
+    long rowsSkipped;
+    long elapsedMillis;
+    double rowsPerSecond;
+    int parserWorkers;
+    int maxParseQueueDepth;
+    double averageParseQueueDepth;
+    int maxWriteQueueDepth;
+    double averageWriteQueueDepth;
+}
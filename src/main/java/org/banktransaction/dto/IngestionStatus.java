@@ -0,0 +1,30 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class IngestionStatus {
+    public enum State {
+        PENDING, RUNNING, COMPLETED, FAILED, DISABLED
+    }
+
+    public enum Source {
+        JSON, SNAPSHOT
+    }
+
+    State state;
+    Source source;
+    String file;
+    long totalBytes;
+    long bytesRead;
+    double percent;
+    long rowsWritten;
+    Instant startedAt;
+    Instant finishedAt;
+    String error;
+    IngestionStats stats;
+}
@@ -0,0 +1,22 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+@Data
+@Builder
+public class RangeSpend {
+    LocalDate from;
+    LocalDate to;
+    String category;
+    String vendor;
+    long transactions;
+    BigDecimal total;
+    Map<YearMonth, BigDecimal> byMonth;
+    long rowsScanned;
+}
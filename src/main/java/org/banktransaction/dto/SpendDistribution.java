@@ -0,0 +1,30 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class SpendDistribution {
+    String category;
+    YearMonth from;
+    YearMonth to;
+    long transactions;
+    BigDecimal min;
+    BigDecimal max;
+    /**
+     * Spend at each requested percentile, keyed like {@code p90}.
+     */
+    Map<String, BigDecimal> percentiles;
+    /**
+     * Largest error of a percentile relative to the spend it estimates.
+     */
+    double relativeAccuracy;
+    List<HistogramBin> histogram;
+    int monthsMerged;
+}
@@ -0,0 +1,12 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StoreFootprint {
+    int rows;
+    long columnarBytes;
+    long entityListBytes;
+}
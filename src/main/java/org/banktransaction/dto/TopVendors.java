@@ -0,0 +1,24 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class TopVendors {
+    String by;
+    String category;
+    boolean exact;
+    /**
+     * How much an estimated total or count may exceed the true one, 0 when exact.
+     */
+    BigDecimal maxOverestimate;
+    /**
+     * Probability that no estimate exceeds the true value by more than {@code maxOverestimate}.
+     */
+    double confidence;
+    List<VendorSpend> vendors;
+}
@@ -0,0 +1,41 @@
+package org.banktransaction.dto;
+
+import lombok.Data;
+import org.banktransaction.entity.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position after the last transaction of a page in the (date desc, id desc) order, handed to clients as an opaque
+ * token.
+ */
+@Data
+public class TransactionCursor {
+    private final LocalDate date;
+    private final long id;
+
+    public static TransactionCursor after(Transaction transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getId());
+    }
+
+    public String encode() {
+        String position = date.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not made by {@link #encode()}
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = position.indexOf(':');
+            return new TransactionCursor(LocalDate.ofEpochDay(Long.parseLong(position.substring(0, separator))),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor " + token, e);
+        }
+    }
+}
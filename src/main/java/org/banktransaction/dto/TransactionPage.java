@@ -0,0 +1,14 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.banktransaction.entity.Transaction;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionPage {
+    List<Transaction> transactions;
+    String nextCursor;
+}
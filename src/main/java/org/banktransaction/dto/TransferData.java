@@ -1,9 +0,0 @@
-package org.banktransaction.dto;
-
-import lombok.Data;
-
-@Data
-public class TransferData {
-    String categoryName;
-    Integer year;
-}
@@ -0,0 +1,14 @@
+package org.banktransaction.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class VendorSpend {
+    String vendor;
+    long transactions;
+    BigDecimal total;
+}
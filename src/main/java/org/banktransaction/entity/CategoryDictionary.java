@@ -0,0 +1,67 @@
+package org.banktransaction.entity;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every category key seen by the application, interned once and numbered, so a category is normalized when a
+ * transaction is read and compared as an int afterwards. Missing and blank categories share the
+ * {@link #UNCATEGORIZED} id of the key "". Ids are never reused.
+ */
+public final class CategoryDictionary {
+    public static final int UNCATEGORIZED = 0;
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>(Map.of("", UNCATEGORIZED));
+    private static volatile String[] keys = {""};
+    private static int size = 1;
+
+    private CategoryDictionary() {
+    }
+
+    /**
+     * Id of a category as written in a transaction, added when it is new.
+     */
+    public static int idOf(String category) {
+        return idOfKey(Transaction.categoryKeyOf(category));
+    }
+
+    /**
+     * Id of a category key that is already normalized, added when it is new.
+     */
+    public static int idOfKey(String categoryKey) {
+        Integer id = IDS.get(categoryKey);
+        return id != null ? id : add(categoryKey);
+    }
+
+    /**
+     * Id of a category without adding it, so looking up what users ask for doesn't grow the dictionary.
+     *
+     * @return {@link #UNKNOWN} when no transaction had the category
+     */
+    public static int find(String category) {
+        return IDS.getOrDefault(Transaction.categoryKeyOf(category), UNKNOWN);
+    }
+
+    public static String keyOf(int id) {
+        return keys[id];
+    }
+
+    /**
+     * The key is published in {@code keys} before its id, so whoever gets an id can read its key.
+     */
+    private static synchronized int add(String categoryKey) {
+        Integer existing = IDS.get(categoryKey);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size++;
+        String[] current = keys;
+        String[] next = id < current.length ? current : Arrays.copyOf(current, current.length * 2);
+        next[id] = categoryKey.intern();
+        keys = next;
+        IDS.put(next[id], id);
+        return id;
+    }
+}
@@ -0,0 +1,23 @@
+package org.banktransaction.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import java.math.BigDecimal;
+
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyRollup {
+    @EmbeddedId
+    private MonthlyRollupId id;
+    @Column(name = "total_amount", precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+    @Column(name = "transaction_count")
+    private long transactionCount;
+}
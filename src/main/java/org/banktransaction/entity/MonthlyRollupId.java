@@ -0,0 +1,32 @@
+package org.banktransaction.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.YearMonth;
+
+@Data
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyRollupId implements Serializable {
+    @Column(name = "category_key")
+    private String categoryKey;
+    /**
+     * Months since January of year 0, so month ranges are plain integer ranges.
+     */
+    @Column(name = "rollup_month")
+    private int month;
+
+    public static int monthOf(YearMonth yearMonth) {
+        return yearMonth.getYear() * 12 + yearMonth.getMonthValue() - 1;
+    }
+
+    public static YearMonth yearMonthOf(int month) {
+        return YearMonth.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1);
+    }
+}
@@ -1,20 +1,34 @@
 package org.banktransaction.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
+import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_transaction_category_key_date", columnList = "category_key, date, id"),
+        @Index(name = "idx_transaction_date", columnList = "date, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 public class Transaction {
+    public static final String ID_SEQUENCE = "transaction_seq";
+    /**
+     * Ids a call of {@link #ID_SEQUENCE} reserves: a value {@code v} hands out {@code v} to
+     * {@code v + ID_BLOCK_SIZE - 1} (Hibernate's pooled-lo optimizer), so Hibernate can batch its inserts and
+     * {@code TransactionBatchWriter} takes ids from the same sequence without a collision.
+     */
+    public static final int ID_BLOCK_SIZE = 50;
+
     public enum TransactionType {
         CARD("card"), DIRECT_DEBIT("direct debit"), INTERNET("internet");
 
@@ -25,7 +39,12 @@ public class Transaction {
         public final String type;
     }
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = ID_SEQUENCE),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_BLOCK_SIZE),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     @EqualsAndHashCode.Exclude
     private Long id;
     private LocalDate date;
@@ -33,4 +52,49 @@ public class Transaction {
     private TransactionType type;
     private BigDecimal amount;
     private String category;
+    /**
+     * Account whose statement the transaction is from, {@code null} for the default account.
+     */
+    private String account;
+    @Column(name = "category_key")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @JsonIgnore
+    private String categoryKey;
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @JsonIgnore
+    @Builder.Default
+    private int categoryId = CategoryDictionary.UNKNOWN;
+
+    /**
+     * Categories are matched case-insensitively and ignoring surrounding spaces, a missing category matches "".
+     */
+    public static String categoryKeyOf(String category) {
+        return category == null ? "" : category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryKey = null;
+        this.categoryId = CategoryDictionary.UNKNOWN;
+    }
+
+    /**
+     * Id of the category in {@link CategoryDictionary}, looked up once per instance. Rows read from the database
+     * are looked up by their stored key, without normalizing the category again.
+     */
+    public int getCategoryId() {
+        if (categoryId == CategoryDictionary.UNKNOWN) {
+            categoryId = categoryKey != null ? CategoryDictionary.idOfKey(categoryKey) : CategoryDictionary.idOf(category);
+        }
+        return categoryId;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void fillCategoryKey() {
+        categoryKey = CategoryDictionary.keyOf(getCategoryId());
+    }
 }
@@ -0,0 +1,36 @@
+package org.banktransaction.event;
+
+import org.banktransaction.entity.Transaction;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * Published after a batch of transactions has been written to the repository. Listeners run synchronously on the
+ * thread that saved the batch.
+ * <p>
+ * A replayed event carries rows saved before this start, published again so in-memory listeners can catch up.
+ * Listeners that keep their state in the database ignore it.
+ */
+public class TransactionsSavedEvent extends ApplicationEvent {
+    private final List<Transaction> transactions;
+    private final boolean replayed;
+
+    public TransactionsSavedEvent(Object source, List<Transaction> transactions) {
+        this(source, transactions, false);
+    }
+
+    public TransactionsSavedEvent(Object source, List<Transaction> transactions, boolean replayed) {
+        super(source);
+        this.transactions = transactions;
+        this.replayed = replayed;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
+    }
+}
@@ -0,0 +1,24 @@
+package org.banktransaction.repository;
+
+import org.banktransaction.entity.MonthlyRollup;
+import org.banktransaction.entity.MonthlyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, MonthlyRollupId> {
+
+    List<MonthlyRollup> findByIdCategoryKeyOrderByIdMonth(String categoryKey);
+
+    List<MonthlyRollup> findByIdCategoryKeyAndIdMonthBetweenOrderByIdMonth(String categoryKey, int from, int to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from MonthlyRollup")
+    void deleteAllRollups();
+
+    @Query("select t.categoryKey, year(t.date), month(t.date), sum(t.amount), count(t) from Transaction t "
+            + "group by t.categoryKey, year(t.date), month(t.date)")
+    List<Object[]> aggregateTransactionsByCategoryAndMonth();
+}
@@ -1,7 +1,107 @@
 package org.banktransaction.repository;
 
 import org.banktransaction.entity.Transaction;
-import org.springframework.data.repository.CrudRepository;
+import org.banktransaction.dto.TransactionCursor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface TransactionRepository extends CrudRepository<Transaction, String> {
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    List<Transaction> findByCategoryKeyOrderByDateDesc(String categoryKey);
+
+    Page<Transaction> findByCategoryKey(String categoryKey, Pageable pageable);
+
+    Page<Transaction> findByDateBetween(LocalDate from, LocalDate to, Pageable pageable);
+
+    Page<Transaction> findByCategoryKeyAndDateBetween(String categoryKey, LocalDate from, LocalDate to, Pageable pageable);
+
+    List<Transaction> findAllByOrderByDateDescIdDesc(Pageable pageable);
+
+    /**
+     * Ordered by the category key too, which is constant here, so HSQLDB reads the (category_key, date, id) index
+     * in order instead of sorting every row of the category.
+     */
+    @Query("select t from Transaction t where t.categoryKey = :categoryKey "
+            + "order by t.categoryKey desc, t.date desc, t.id desc")
+    List<Transaction> findFirstPageByCategoryKey(@Param("categoryKey") String categoryKey, Pageable pageable);
+
+    @Query("select t from Transaction t where t.date <= :date and (t.date < :date or t.id < :id) "
+            + "order by t.date desc, t.id desc")
+    List<Transaction> findAfter(@Param("date") LocalDate date, @Param("id") long id, Pageable pageable);
+
+    @Query("select t from Transaction t where t.categoryKey = :categoryKey "
+            + "and t.date <= :date and (t.date < :date or t.id < :id) order by t.categoryKey desc, t.date desc, t.id desc")
+    List<Transaction> findByCategoryKeyAfter(@Param("categoryKey") String categoryKey, @Param("date") LocalDate date,
+                                             @Param("id") long id, Pageable pageable);
+
+    Optional<Transaction> findFirstByCategoryKeyAndDateBetweenOrderByAmountDesc(String categoryKey, LocalDate from, LocalDate to);
+
+    Optional<Transaction> findFirstByCategoryKeyAndDateBetweenOrderByAmountAsc(String categoryKey, LocalDate from, LocalDate to);
+
+    default List<Transaction> findByCategory(String category) {
+        return findByCategoryKeyOrderByDateDesc(Transaction.categoryKeyOf(category));
+    }
+
+    default Page<Transaction> findByCategory(String category, Pageable pageable) {
+        return findByCategoryKey(Transaction.categoryKeyOf(category), pageable);
+    }
+
+    /**
+     * Keyset page of the transactions ordered latest first, starting after {@code cursor} or at the top when it is
+     * {@code null}. The {@code date <=} bound makes the filter an index range, so every page costs the same however
+     * deep it is.
+     */
+    default List<Transaction> findPage(String category, TransactionCursor cursor, int limit) {
+        Pageable pageable = PageRequest.of(0, limit);
+        if (category == null) {
+            return cursor == null ? findAllByOrderByDateDescIdDesc(pageable)
+                    : findAfter(cursor.getDate(), cursor.getId(), pageable);
+        }
+        String categoryKey = Transaction.categoryKeyOf(category);
+        return cursor == null ? findFirstPageByCategoryKey(categoryKey, pageable)
+                : findByCategoryKeyAfter(categoryKey, cursor.getDate(), cursor.getId(), pageable);
+    }
+
+    default Page<Transaction> findByYear(int year, Pageable pageable) {
+        return findByDateBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), pageable);
+    }
+
+    default Page<Transaction> findByCategoryAndYear(String category, int year, Pageable pageable) {
+        return findByCategoryKeyAndDateBetween(Transaction.categoryKeyOf(category),
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), pageable);
+    }
+
+    default Optional<Transaction> findHighestSpendByCategoryAndYear(String category, int year) {
+        return findFirstByCategoryKeyAndDateBetweenOrderByAmountDesc(Transaction.categoryKeyOf(category),
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    default Optional<Transaction> findLowestSpendByCategoryAndYear(String category, int year) {
+        return findFirstByCategoryKeyAndDateBetweenOrderByAmountAsc(Transaction.categoryKeyOf(category),
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    /**
+     * Hands every transaction to {@code consumer} a keyset page at a time, latest first.
+     */
+    default void forEachPage(int pageSize, Consumer<List<Transaction>> consumer) {
+        TransactionCursor cursor = null;
+        List<Transaction> page;
+        do {
+            page = findPage(null, cursor, pageSize);
+            consumer.accept(page);
+            if (page.size() == pageSize) {
+                cursor = TransactionCursor.after(page.get(page.size() - 1));
+            }
+        } while (page.size() == pageSize);
+    }
 }
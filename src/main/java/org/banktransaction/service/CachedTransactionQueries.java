@@ -0,0 +1,64 @@
+package org.banktransaction.service;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.entity.Transaction;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The queries behind the pages, answered from {@link QueryResultCache} when the same query was computed since the
+ * last write. Results are shared between requests, so collections are handed out unmodifiable. Misses are timed
+ * under {@code transactions.query}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CachedTransactionQueries {
+    private final TransactionService service;
+    private final MonthlyRollupService monthlyRollupService;
+    private final QueryResultCache cache;
+
+    public Page<Transaction> getTransactionsPage(int page, int size) {
+        return cache.get("page:" + page + ":" + size,
+                () -> TransactionMetrics.timeQuery("page", () -> service.getTransactionsPage(page, size)));
+    }
+
+    public List<Transaction> getTransactionsByCategory(String category) {
+        return cache.get("category:" + category, () -> TransactionMetrics.timeQuery("category",
+                () -> Collections.unmodifiableList(service.getTransactionsByCategory(category))));
+    }
+
+    public Map<String, BigDecimal> getCategoryToOutgoing() {
+        return cache.get("total-outgoing", () -> TransactionMetrics.timeQuery("total-outgoing",
+                () -> Collections.unmodifiableMap(service.getCategoryToOutgoing())));
+    }
+
+    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory(String category) {
+        return cache.get("monthly-average:" + category, () -> TransactionMetrics.timeQuery("monthly-average",
+                () -> Collections.unmodifiableMap(monthlyRollupService.getMonthlyAverageSpendToCategory(category))));
+    }
+
+    public Optional<Transaction> getHighestSpendByCategoryAndYear(int year, String category) {
+        return cache.get("highest-spend:" + year + ":" + category, () -> TransactionMetrics.timeQuery("highest-spend",
+                () -> service.getHighestSpendByCategoryAndYear(year, category)));
+    }
+
+    public Optional<Transaction> getLowestSpendByCategoryAndYear(int year, String category) {
+        return cache.get("lowest-spend:" + year + ":" + category, () -> TransactionMetrics.timeQuery("lowest-spend",
+                () -> service.getLowestSpendByCategoryAndYear(year, category)));
+    }
+
+    public List<Transaction> getTopSpendsByCategoryAndYear(int year, String category, int limit) {
+        return cache.get("top-spend:" + year + ":" + limit + ":" + category, () -> TransactionMetrics.timeQuery("top-spend",
+                () -> service.getTopSpendsByCategoryAndYear(year, category, limit)));
+    }
+
+    public int getTopSpendsCapacity() {
+        return service.getTopSpendsCapacity();
+    }
+}
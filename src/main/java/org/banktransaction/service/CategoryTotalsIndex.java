@@ -0,0 +1,43 @@
+package org.banktransaction.service;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Total outgoing per category, kept up to date as batches are saved so reading it costs O(#categories).
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class CategoryTotalsIndex implements ApplicationListener<TransactionsSavedEvent> {
+    private final Map<String, BigDecimal> categoryToOutgoing = new HashMap<>();
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        add(event.getTransactions());
+    }
+
+    public synchronized void add(Iterable<Transaction> transactions) {
+        for (Transaction elem : transactions) {
+            categoryToOutgoing.merge(elem.getCategory(), elem.getAmount(), BigDecimal::add);
+        }
+    }
+
+    public synchronized void clear() {
+        categoryToOutgoing.clear();
+    }
+
+    public synchronized boolean isEmpty() {
+        return categoryToOutgoing.isEmpty();
+    }
+
+    public synchronized Map<String, BigDecimal> getCategoryToOutgoing() {
+        return new HashMap<>(categoryToOutgoing);
+    }
+}
@@ -0,0 +1,277 @@
+package org.banktransaction.service;
+
+import org.banktransaction.dto.StoreFootprint;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Copy of the saved transactions kept column by column in primitive arrays: amounts as minor units, dates as
+ * epoch days, category and vendor as dictionary ids and the type as its ordinal. Scans touch a few dense arrays
+ * instead of chasing six objects per row.
+ */
+@Component
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+@Order(DataVersion.INDEX_ORDER)
+public class ColumnarTransactionStore implements ApplicationListener<TransactionsSavedEvent> {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final byte NO_TYPE = -1;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary vendors = new Dictionary();
+    private int size;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] epochDays = new int[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private int[] vendorIds = new int[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        addAll(event.getTransactions());
+    }
+
+    public void addAll(Collection<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + transactions.size());
+            for (Transaction elem : transactions) {
+                ids[size] = elem.getId() == null ? 0 : elem.getId();
+                epochDays[size] = (int) elem.getDate().toEpochDay();
+                amounts[size] = toMinorUnits(elem.getAmount());
+                categoryIds[size] = categories.idOf(elem.getCategory());
+                vendorIds[size] = vendors.idOf(elem.getVendor());
+                types[size] = elem.getType() == null ? NO_TYPE : (byte) elem.getType().ordinal();
+                size++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Missing categories are totalled under {@code ""}, along with the empty one.
+     */
+    public Map<String, BigDecimal> getCategoryToOutgoing() {
+        lock.readLock().lock();
+        try {
+            long[] totals = new long[categories.size()];
+            for (int row = 0; row < size; row++) {
+                totals[categoryIds[row]] += amounts[row];
+            }
+            Map<String, BigDecimal> categoryToOutgoing = new HashMap<>();
+            for (int id = 0; id < totals.length; id++) {
+                String category = categories.valueOf(id);
+                categoryToOutgoing.merge(category == null ? "" : category, BigDecimal.valueOf(totals[id], 2),
+                        BigDecimal::add);
+            }
+            return categoryToOutgoing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory(String category) {
+        lock.readLock().lock();
+        try {
+            boolean[] matches = categoriesMatching(category);
+            int firstMonth = Integer.MAX_VALUE;
+            int lastMonth = Integer.MIN_VALUE;
+            for (int row = 0; row < size; row++) {
+                if (matches[categoryIds[row]]) {
+                    int month = epochMonth(epochDays[row]);
+                    firstMonth = Math.min(firstMonth, month);
+                    lastMonth = Math.max(lastMonth, month);
+                }
+            }
+            long totalAmount = 0;
+            int months = 0;
+            if (firstMonth <= lastMonth) {
+                boolean[] hasSpend = new boolean[lastMonth - firstMonth + 1];
+                for (int row = 0; row < size; row++) {
+                    if (matches[categoryIds[row]]) {
+                        hasSpend[epochMonth(epochDays[row]) - firstMonth] = true;
+                        totalAmount += amounts[row];
+                    }
+                }
+                for (boolean spend : hasSpend) {
+                    months += spend ? 1 : 0;
+                }
+            }
+            BigDecimal average = BigDecimal.valueOf(totalAmount, 2);
+            if (months > 0) {
+                average = average.divide(BigDecimal.valueOf(months), 2, RoundingMode.DOWN);
+            }
+            Map<String, BigDecimal> categoryToMonthlyAvgSpend = new HashMap<>();
+            categoryToMonthlyAvgSpend.put(category, average);
+            return categoryToMonthlyAvgSpend;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Transaction getHighestSpendByCategoryAndYear(int year, String category) {
+        return findByCategoryAndYear(year, category, true);
+    }
+
+    public Transaction getLowestSpendByCategoryAndYear(int year, String category) {
+        return findByCategoryAndYear(year, category, false);
+    }
+
+    private Transaction findByCategoryAndYear(int year, String category, boolean highest) {
+        lock.readLock().lock();
+        try {
+            boolean[] matches = categoriesMatching(category);
+            int from = (int) LocalDate.of(year, 1, 1).toEpochDay();
+            int to = (int) LocalDate.of(year + 1, 1, 1).toEpochDay();
+            int found = -1;
+            for (int row = 0; row < size; row++) {
+                if (matches[categoryIds[row]] && epochDays[row] >= from && epochDays[row] < to
+                        && (found < 0 || (highest ? amounts[row] > amounts[found] : amounts[row] < amounts[found]))) {
+                    found = row;
+                }
+            }
+            return found < 0 ? new Transaction() : toTransaction(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public StoreFootprint getFootprint() {
+        lock.readLock().lock();
+        try {
+            long columns = 8L * ids.length + 4L * epochDays.length + 8L * amounts.length
+                    + 4L * categoryIds.length + 4L * vendorIds.length + types.length;
+            long dictionaries = categories.footprintBytes() + vendors.footprintBytes();
+            return StoreFootprint.builder()
+                    .rows(size)
+                    .columnarBytes(columns + dictionaries)
+                    .entityListBytes(estimateEntityListBytes())
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough size of the same rows as a {@code List<Transaction>} loaded from the repository: the list slot, the
+     * entity, its Long id, LocalDate, BigDecimal and the own copies of the vendor, category and category key.
+     */
+    private long estimateEntityListBytes() {
+        long strings = 0;
+        for (int row = 0; row < size; row++) {
+            strings += stringBytes(vendors.valueOf(vendorIds[row])) + 2 * stringBytes(categories.valueOf(categoryIds[row]));
+        }
+        return size * (4L + 40 + 16 + 24 + 32) + strings;
+    }
+
+    private boolean[] categoriesMatching(String category) {
+        String categoryKey = Transaction.categoryKeyOf(category);
+        boolean[] matches = new boolean[categories.size()];
+        for (int id = 0; id < matches.length; id++) {
+            matches[id] = Transaction.categoryKeyOf(categories.valueOf(id)).equals(categoryKey);
+        }
+        return matches;
+    }
+
+    private Transaction toTransaction(int row) {
+        return Transaction.builder()
+                .id(ids[row] == 0 ? null : ids[row])
+                .date(LocalDate.ofEpochDay(epochDays[row]))
+                .vendor(vendors.valueOf(vendorIds[row]))
+                .type(types[row] == NO_TYPE ? null : TYPES[types[row]])
+                .amount(BigDecimal.valueOf(amounts[row], 2))
+                .category(categories.valueOf(categoryIds[row]))
+                .build();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        epochDays = Arrays.copyOf(epochDays, newCapacity);
+        amounts = Arrays.copyOf(amounts, newCapacity);
+        categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+        vendorIds = Arrays.copyOf(vendorIds, newCapacity);
+        types = Arrays.copyOf(types, newCapacity);
+    }
+
+    static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.DOWN).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Months since 1970-01 of an epoch day, computed without creating a {@link LocalDate}
+     * (days-to-civil conversion by Howard Hinnant).
+     */
+    static int epochMonth(int epochDay) {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (year - 1970) * 12 + month - 1;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        String valueOf(int id) {
+            return values.get(id);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        long footprintBytes() {
+            long bytes = 0;
+            for (String value : values) {
+                bytes += 48 + 16 + 4 + stringBytes(value);
+            }
+            return bytes;
+        }
+    }
+}
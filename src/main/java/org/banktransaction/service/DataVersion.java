@@ -0,0 +1,55 @@
+package org.banktransaction.service;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter that moves forward every time transactions are written, whatever path wrote them, along with the number
+ * of rows written and the sum of their fingerprints.
+ * <p>
+ * It moves only after the listeners ordered {@link #INDEX_ORDER} took the batch in, so a result computed while they
+ * were still at it is never cached or tagged under the new version.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class DataVersion implements ApplicationListener<TransactionsSavedEvent> {
+    /**
+     * Order of the listeners that keep indexes of the saved transactions.
+     */
+    public static final int INDEX_ORDER = 0;
+
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+    private long digest;
+
+    @Override
+    public synchronized void onApplicationEvent(TransactionsSavedEvent event) {
+        for (Transaction elem : event.getTransactions()) {
+            digest += TransactionFingerprints.fingerprintOf(elem);
+        }
+        rows.addAndGet(event.getTransactions().size());
+        version.incrementAndGet();
+    }
+
+    public long get() {
+        return version.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    /**
+     * Version of the saved transactions as a whole: their count and the sum of their fingerprints. It does not
+     * depend on the order the rows were saved in, so every node holding the same transactions has the same tag.
+     */
+    public synchronized String getTag() {
+        return Long.toHexString(rows.get()) + "-" + Long.toHexString(digest);
+    }
+}
@@ -0,0 +1,109 @@
+package org.banktransaction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.dto.ExportFormat;
+import org.banktransaction.dto.ExportStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Command line export: with {@code --export.file=<path>} the application loads its data file as usual, writes the
+ * transactions selected by {@code export.format}, {@code export.category}, {@code export.from} and {@code export.to}
+ * (ISO dates) to the file and exits, with status 1 when the export failed. Meant to run with
+ * {@code --spring.main.web-application-type=none}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "export.file")
+public class ExportCommand {
+    private final TransactionExporter exporter;
+    private final StartupIngestion ingestion;
+    private final ApplicationContext context;
+    private final Path file;
+    private final ExportFormat format;
+    private final String category;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    public ExportCommand(TransactionExporter exporter, StartupIngestion ingestion, ApplicationContext context,
+                         @Value("${export.file}") String file,
+                         @Value("${export.format:csv}") String format,
+                         @Value("${export.category:#{null}}") String category,
+                         @Value("${export.from:#{null}}") String from,
+                         @Value("${export.to:#{null}}") String to) {
+        this.exporter = exporter;
+        this.ingestion = ingestion;
+        this.context = context;
+        this.file = Paths.get(file);
+        this.format = ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        this.category = category;
+        this.from = from == null ? null : LocalDate.parse(from);
+        this.to = to == null ? null : LocalDate.parse(to);
+    }
+
+    /**
+     * Runs on its own thread, as the data file is only loaded after the ready listeners returned.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::run, "export");
+        thread.start();
+    }
+
+    private void run() {
+        int status = 1;
+        try {
+            ingestion.awaitFinished();
+            if (ingestion.isCompleted()) {
+                ExportStats stats = exportToFile();
+                log.info("Exported {} transactions ({} bytes) to {} in {} ms", stats.getRows(), stats.getBytes(), file,
+                        stats.getElapsedMillis());
+                status = 0;
+            } else {
+                log.error("Nothing exported to {}, the data file could not be loaded", file);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Export to {} failed", file, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int exitCode = status;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    /**
+     * Written next to the target and moved over it once complete, so a failed export leaves no partial file.
+     */
+    private ExportStats exportToFile() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            ExportStats stats;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                stats = exporter.export(format, category, from, to, channel);
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return stats;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
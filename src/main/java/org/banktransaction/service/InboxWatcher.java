@@ -0,0 +1,221 @@
+package org.banktransaction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.dto.InboxFile;
+import org.banktransaction.dto.IngestionStats;
+import org.banktransaction.dto.IngestionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches an inbox directory and appends the transactions of every json file that appears or changes in it.
+ * Rows already saved are dropped by {@link TransactionFingerprints}, so a file costs time in its own size and a
+ * statement that overlaps an earlier one, or the same file dropped in again, only adds what is new.
+ * <p>
+ * Files are left in place and read again on the next start, where the fingerprints skip what is already loaded.
+ */
+@Slf4j
+@Service
+public class InboxWatcher {
+    private static final int MAX_FILES = 100;
+
+    private final IngestionPipeline pipeline;
+    private final TransactionFingerprints fingerprints;
+    private final StartupIngestion startupIngestion;
+    private final boolean enabled;
+    private final Path dir;
+    private final Duration settle;
+    private final Map<Path, FileVersion> ingested = new HashMap<>();
+    private final Map<Path, InboxFile> files = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, InboxFile> eldest) {
+            return size() > MAX_FILES;
+        }
+    });
+
+    private volatile WatchService watchService;
+    private volatile Thread thread;
+
+    public InboxWatcher(IngestionPipeline pipeline, TransactionFingerprints fingerprints, StartupIngestion startupIngestion,
+                        @Value("${ingestion.inbox.enabled:false}") boolean enabled,
+                        @Value("${ingestion.inbox.dir:inbox}") String dir,
+                        @Value("${ingestion.inbox.settle:1s}") Duration settle) {
+        this.pipeline = pipeline;
+        this.fingerprints = fingerprints;
+        this.startupIngestion = startupIngestion;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+        this.settle = settle;
+    }
+
+    /**
+     * Files are watched from now on but only ingested once the startup ingestion finished, so its snapshot, stamped
+     * with the data file, never holds rows of the inbox.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(dir);
+        watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "inbox-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching {} for new transaction files", dir.toAbsolutePath());
+    }
+
+    private void watch() {
+        try {
+            startupIngestion.awaitFinished();
+            Set<Path> pending = new TreeSet<>(listJsonFiles());
+            while (!Thread.currentThread().isInterrupted()) {
+                for (Path file : pending) {
+                    ingestIfChanged(file);
+                }
+                pending.clear();
+                WatchKey key = watchService.take();
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            pending.addAll(listJsonFiles());
+                        } else if (isJson((Path) event.context())) {
+                            pending.add(dir.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                } while ((key = watchService.poll(settle.toMillis(), TimeUnit.MILLISECONDS)) != null);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Watching {} failed, new files are no longer ingested", dir, e);
+        }
+    }
+
+    private void ingestIfChanged(Path file) throws InterruptedException {
+        try {
+            FileVersion version = awaitSettled(file);
+            if (version == null || version.equals(ingested.get(file))) {
+                return;
+            }
+            ingested.put(file, version);
+            try {
+                IngestionStats stats = pipeline.ingest(file.toString(), fingerprints.newFileFilter());
+                record(file, version, IngestionStatus.State.COMPLETED, stats, null);
+            } catch (RuntimeException e) {
+                log.error("Ingestion of {} failed", file, e);
+                record(file, version, IngestionStatus.State.FAILED, null, e.getMessage());
+            }
+        } catch (IOException e) {
+            log.warn("{} can't be read", file, e);
+        }
+    }
+
+    /**
+     * Waits until the size and modification time of a file stop changing, so a file still being copied in isn't
+     * read half way.
+     *
+     * @return the settled version or {@code null} if the file is gone
+     */
+    private FileVersion awaitSettled(Path file) throws IOException, InterruptedException {
+        FileVersion previous = null;
+        while (Files.isRegularFile(file)) {
+            FileVersion current = FileVersion.of(file);
+            if (current.equals(previous)) {
+                return current;
+            }
+            previous = current;
+            Thread.sleep(settle.toMillis());
+        }
+        return null;
+    }
+
+    private void record(Path file, FileVersion version, IngestionStatus.State state, IngestionStats stats, String error) {
+        files.remove(file);
+        files.put(file, InboxFile.builder()
+                .file(file.toString())
+                .size(version.size)
+                .state(state)
+                .finishedAt(Instant.now())
+                .error(error)
+                .stats(stats)
+                .build());
+    }
+
+    private List<Path> listJsonFiles() throws IOException {
+        try (Stream<Path> entries = Files.list(dir)) {
+            return entries.filter(InboxWatcher::isJson).filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isJson(Path file) {
+        return file.getFileName().toString().endsWith(".json");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The last result of every file ingested from the inbox, oldest first.
+     */
+    public List<InboxFile> getFiles() {
+        synchronized (files) {
+            return new ArrayList<>(files.values());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (thread != null) {
+            thread.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    private static class FileVersion {
+        private final long size;
+        private final long modifiedMillis;
+
+        private FileVersion(long size, long modifiedMillis) {
+            this.size = size;
+            this.modifiedMillis = modifiedMillis;
+        }
+
+        static FileVersion of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileVersion(attributes.size(), attributes.lastModifiedTime().toMillis());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileVersion)) {
+                return false;
+            }
+            FileVersion other = (FileVersion) o;
+            return size == other.size && modifiedMillis == other.modifiedMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, modifiedMillis);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.banktransaction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.dto.IngestionStats;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.exception.FileCanNotBeReadException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Loads a json file in three stages connected by bounded queues: one reader splits the file into chunks of raw
+ * records, a pool of parser workers maps them to transactions and one writer inserts them with JDBC batches.
+ * A full queue blocks the stage in front of it, so a slow writer throttles the reader instead of piling up memory.
+ * <p>
+ * Every batch is committed as it is written, so the file is never held whole. A record that doesn't parse stops the
+ * ingestion with {@link org.banktransaction.exception.FileCanNotBeParsedException}: the writer finishes the batch
+ * it is writing, and the batches written before it stay saved and indexed. The file is then partly ingested and
+ * the startup ingestion reports it as failed.
+ */
+@Slf4j
+@Service
+public class IngestionPipeline {
+    private static final List<String[]> END_OF_CHUNKS = new ArrayList<>();
+    private static final List<Transaction> END_OF_BATCHES = new ArrayList<>();
+
+    private final TransactionBatchWriter writer;
+    private final int parserWorkers;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsSkipped = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private volatile BlockingQueue<List<String[]>> chunks = new ArrayBlockingQueue<>(1);
+    private volatile BlockingQueue<List<Transaction>> batches = new ArrayBlockingQueue<>(1);
+
+    public IngestionPipeline(TransactionBatchWriter writer,
+                             @Value("${ingestion.pipeline.workers:0}") int parserWorkers,
+                             @Value("${ingestion.pipeline.chunk-size:1000}") int chunkSize,
+                             @Value("${ingestion.pipeline.queue-capacity:16}") int queueCapacity) {
+        this.writer = writer;
+        this.parserWorkers = parserWorkers > 0 ? parserWorkers : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    /**
+     * Position of the reader in the file being ingested.
+     */
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    public int getParseQueueDepth() {
+        return chunks.size();
+    }
+
+    public int getWriteQueueDepth() {
+        return batches.size();
+    }
+
+    public IngestionStats ingest(String fileDir) {
+        return ingest(fileDir, UnaryOperator.identity());
+    }
+
+    /**
+     * @param filter applied by the parser workers to every batch before it is queued for writing, rows it drops
+     *               are counted as skipped
+     */
+    public synchronized IngestionStats ingest(String fileDir, UnaryOperator<List<Transaction>> filter) {
+        chunks = new ArrayBlockingQueue<>(queueCapacity);
+        batches = new ArrayBlockingQueue<>(queueCapacity);
+        rowsWritten.set(0);
+        rowsSkipped.set(0);
+        bytesRead.set(0);
+        QueueDepth chunksDepth = new QueueDepth();
+        QueueDepth batchesDepth = new QueueDepth();
+        AtomicInteger activeParsers = new AtomicInteger(parserWorkers);
+
+        StageThreadFactory threadFactory = new StageThreadFactory();
+        ExecutorService executor = Executors.newFixedThreadPool(parserWorkers + 1, threadFactory);
+        ExecutorService writerExecutor = Executors.newSingleThreadExecutor(threadFactory);
+        BlockingQueue<Future<Long>> completed = new LinkedBlockingQueue<>();
+        CompletionService<Long> stages = new ExecutorCompletionService<>(executor, completed);
+        long start = System.nanoTime();
+        Future<Long> writing = null;
+        try {
+            writing = new ExecutorCompletionService<>(writerExecutor, completed).submit(this::write);
+            stages.submit(() -> read(fileDir, chunksDepth));
+            for (int i = 0; i < parserWorkers; i++) {
+                stages.submit(() -> parse(filter, batchesDepth, activeParsers));
+            }
+            for (int i = 0; i < parserWorkers + 2; i++) {
+                awaitStage(completed.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ingestion of " + fileDir + " was interrupted", e);
+        } finally {
+            stop(executor, writerExecutor, writing);
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        TransactionMetrics.INGESTION.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        IngestionStats stats = IngestionStats.builder()
+                .rows(rowsWritten.get())
+                .rowsSkipped(rowsSkipped.get())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(rowsWritten.get() * 1_000_000_000d / elapsedNanos)
+                .parserWorkers(parserWorkers)
+                .maxParseQueueDepth(chunksDepth.max.get())
+                .averageParseQueueDepth(chunksDepth.average())
+                .maxWriteQueueDepth(batchesDepth.max.get())
+                .averageWriteQueueDepth(batchesDepth.average())
+                .build();
+        log.info("Ingested {}: {}", fileDir, stats);
+        return stats;
+    }
+
+    private long read(String fileDir, QueueDepth depth) throws InterruptedException {
+        long records = 0;
+        try (TransactionJsonReader reader = new TransactionJsonReader(fileDir)) {
+            List<String[]> chunk = new ArrayList<>(chunkSize);
+            String[] record;
+            while ((record = reader.nextRecord()) != null) {
+                chunk.add(record);
+                records++;
+                if (chunk.size() == chunkSize) {
+                    bytesRead.set(reader.getBytesRead());
+                    put(chunks, chunk, depth);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                put(chunks, chunk, depth);
+            }
+            bytesRead.set(reader.getBytesRead());
+        } catch (IOException e) {
+            throw new FileCanNotBeReadException("Can't find the file. There is a problem with a file's path, it can not be read!");
+        } finally {
+            for (int i = 0; i < parserWorkers; i++) {
+                chunks.put(END_OF_CHUNKS);
+            }
+        }
+        return records;
+    }
+
+    private long parse(UnaryOperator<List<Transaction>> filter, QueueDepth depth, AtomicInteger activeParsers)
+            throws InterruptedException {
+        long parsed = 0;
+        try {
+            List<String[]> chunk;
+            while ((chunk = chunks.take()) != END_OF_CHUNKS) {
+                List<Transaction> batch = new ArrayList<>(chunk.size());
+                List<String[]> records = chunk;
+                TransactionMetrics.MAP.record(() -> {
+                    for (String[] record : records) {
+                        batch.add(TransactionJsonReader.toTransaction(record));
+                    }
+                });
+                TransactionMetrics.ROWS_PARSED.increment(batch.size());
+                parsed += batch.size();
+                List<Transaction> retained = filter.apply(batch);
+                rowsSkipped.addAndGet(batch.size() - retained.size());
+                if (!retained.isEmpty()) {
+                    put(batches, retained, depth);
+                }
+            }
+        } finally {
+            if (activeParsers.decrementAndGet() == 0) {
+                batches.put(END_OF_BATCHES);
+            }
+        }
+        return parsed;
+    }
+
+    private long write() throws InterruptedException {
+        List<Transaction> batch;
+        while ((batch = batches.take()) != END_OF_BATCHES) {
+            rowsWritten.addAndGet(writer.write(batch));
+        }
+        return rowsWritten.get();
+    }
+
+    /**
+     * Interrupts the reader and the parsers, but lets the writer finish the batch it is writing, so a failed
+     * ingestion leaves whole batches behind that are saved and indexed.
+     */
+    private void stop(ExecutorService executor, ExecutorService writerExecutor, Future<Long> writing) {
+        executor.shutdownNow();
+        writerExecutor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            if (writing != null && !writing.isDone()) {
+                batches.clear();
+                batches.put(END_OF_BATCHES);
+            }
+            writerExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            writerExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T element, QueueDepth depth) throws InterruptedException {
+        queue.put(element);
+        depth.record(queue.size());
+    }
+
+    private static void awaitStage(Future<Long> stage) throws InterruptedException {
+        try {
+            stage.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Ingestion stage failed", e.getCause());
+        }
+    }
+
+    private static class QueueDepth {
+        private final AtomicInteger max = new AtomicInteger();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong samples = new AtomicLong();
+
+        void record(int depth) {
+            max.accumulateAndGet(depth, Math::max);
+            total.addAndGet(depth);
+            samples.incrementAndGet();
+        }
+
+        double average() {
+            long count = samples.get();
+            return count == 0 ? 0 : (double) total.get() / count;
+        }
+    }
+
+    private static class StageThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "ingestion-stage-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.banktransaction.service;
+
+import org.banktransaction.dto.RangeSpend;
+import org.banktransaction.dto.VendorSpend;
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Transactions partitioned by month, each partition holding its rows as columns plus the total of every category.
+ * A date range only visits the partitions it overlaps: the first and last are filtered by day, the ones in between
+ * are covered whole, so a category total reads their per-category totals without touching a row. Vendors are
+ * matched case-insensitively and ignoring surrounding spaces, like categories.
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class MonthPartitionedStore implements ApplicationListener<TransactionsSavedEvent> {
+    private static final int ALL = Integer.MIN_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<YearMonth, Partition> partitions = new TreeMap<>();
+    private final Map<String, Integer> vendorIds = new HashMap<>();
+    private final List<String> vendors = new ArrayList<>();
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        add(event.getTransactions());
+    }
+
+    public void add(Iterable<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            for (Transaction elem : transactions) {
+                if (elem.getDate() != null && elem.getAmount() != null) {
+                    partitions.computeIfAbsent(YearMonth.from(elem.getDate()), month -> new Partition())
+                            .add((int) elem.getDate().toEpochDay(), ColumnarTransactionStore.toMinorUnits(elem.getAmount()),
+                                    elem.getCategoryId(), vendorIdOf(elem.getVendor()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return partitions.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Spend between {@code from} and {@code to} inclusive, in total and by month.
+     *
+     * @param category only this category, all when {@code null}
+     * @param vendor   only this vendor, all when {@code null}
+     */
+    public RangeSpend getSpend(LocalDate from, LocalDate to, String category, String vendor) {
+        lock.readLock().lock();
+        try {
+            int categoryId = category == null ? ALL : CategoryDictionary.find(category);
+            int vendorId = vendor == null ? ALL : vendorIds.getOrDefault(keyOf(vendor), CategoryDictionary.UNKNOWN);
+            Map<YearMonth, BigDecimal> byMonth = new LinkedHashMap<>();
+            long total = 0;
+            long count = 0;
+            long scanned = 0;
+            if (categoryId != CategoryDictionary.UNKNOWN && vendorId != CategoryDictionary.UNKNOWN) {
+                for (Map.Entry<YearMonth, Partition> entry : overlapping(from, to).entrySet()) {
+                    long[] sumAndCount = entry.getValue().sum(entry.getKey(), from, to, categoryId, vendorId);
+                    scanned += sumAndCount[2];
+                    if (sumAndCount[1] > 0) {
+                        byMonth.put(entry.getKey(), BigDecimal.valueOf(sumAndCount[0], 2));
+                        total += sumAndCount[0];
+                        count += sumAndCount[1];
+                    }
+                }
+            }
+            return RangeSpend.builder()
+                    .from(from)
+                    .to(to)
+                    .category(category)
+                    .vendor(vendor)
+                    .transactions(count)
+                    .total(BigDecimal.valueOf(total, 2))
+                    .byMonth(byMonth)
+                    .rowsScanned(scanned)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The vendors with the highest spend between {@code from} and {@code to} inclusive, largest first.
+     *
+     * @param category only this category, all when {@code null}
+     */
+    public List<VendorSpend> getTopVendors(LocalDate from, LocalDate to, String category, int limit) {
+        return getTopVendors(from, to, category, limit, false);
+    }
+
+    /**
+     * The vendors with the highest spend, or the most transactions when {@code byCount}, largest first.
+     *
+     * @param from     first day, unbounded when {@code null}
+     * @param to       last day, unbounded when {@code null}
+     * @param category only this category, all when {@code null}
+     */
+    public List<VendorSpend> getTopVendors(LocalDate from, LocalDate to, String category, int limit, boolean byCount) {
+        lock.readLock().lock();
+        try {
+            int categoryId = category == null ? ALL : CategoryDictionary.find(category);
+            if (categoryId == CategoryDictionary.UNKNOWN) {
+                return List.of();
+            }
+            long[] sums = new long[vendors.size()];
+            int[] counts = new int[vendors.size()];
+            int fromDay = from == null ? Integer.MIN_VALUE : (int) from.toEpochDay();
+            int toDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+            for (Partition partition : overlapping(from, to).values()) {
+                for (int i = 0; i < partition.size; i++) {
+                    if (partition.epochDays[i] >= fromDay && partition.epochDays[i] <= toDay
+                            && (categoryId == ALL || partition.categoryIds[i] == categoryId)) {
+                        sums[partition.vendorIds[i]] += partition.amounts[i];
+                        counts[partition.vendorIds[i]]++;
+                    }
+                }
+            }
+            PriorityQueue<Integer> top = new PriorityQueue<>(
+                    Comparator.comparingLong((Integer id) -> byCount ? counts[id] : sums[id]));
+            for (int id = 0; id < sums.length; id++) {
+                if (counts[id] > 0) {
+                    top.add(id);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+            List<VendorSpend> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                int id = top.poll();
+                result.add(VendorSpend.builder()
+                        .vendor(vendors.get(id))
+                        .transactions(counts[id])
+                        .total(BigDecimal.valueOf(sums[id], 2))
+                        .build());
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<YearMonth, Partition> overlapping(LocalDate from, LocalDate to) {
+        NavigableMap<YearMonth, Partition> overlapping = partitions;
+        if (from != null) {
+            overlapping = overlapping.tailMap(YearMonth.from(from), true);
+        }
+        return to == null ? overlapping : overlapping.headMap(YearMonth.from(to), true);
+    }
+
+    private int vendorIdOf(String vendor) {
+        String key = keyOf(vendor);
+        Integer id = vendorIds.get(key);
+        if (id == null) {
+            id = vendors.size();
+            vendorIds.put(key, id);
+            vendors.add(vendor);
+        }
+        return id;
+    }
+
+    private static String keyOf(String vendor) {
+        return Transaction.categoryKeyOf(vendor);
+    }
+
+    /**
+     * Rows of one month in insertion order and the total and count of every category id.
+     */
+    private static class Partition {
+        private int size;
+        private int[] epochDays = new int[16];
+        private long[] amounts = new long[16];
+        private int[] categoryIds = new int[16];
+        private int[] vendorIds = new int[16];
+        private long[] categorySums = new long[8];
+        private int[] categoryCounts = new int[8];
+        private long sum;
+
+        void add(int epochDay, long amount, int categoryId, int vendorId) {
+            if (size == epochDays.length) {
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                amounts = Arrays.copyOf(amounts, size * 2);
+                categoryIds = Arrays.copyOf(categoryIds, size * 2);
+                vendorIds = Arrays.copyOf(vendorIds, size * 2);
+            }
+            if (categoryId >= categorySums.length) {
+                int length = Math.max(categoryId + 1, categorySums.length * 2);
+                categorySums = Arrays.copyOf(categorySums, length);
+                categoryCounts = Arrays.copyOf(categoryCounts, length);
+            }
+            epochDays[size] = epochDay;
+            amounts[size] = amount;
+            categoryIds[size] = categoryId;
+            vendorIds[size] = vendorId;
+            size++;
+            categorySums[categoryId] += amount;
+            categoryCounts[categoryId]++;
+            sum += amount;
+        }
+
+        /**
+         * @param categoryId {@code ALL} for every category
+         * @param vendorId   {@code ALL} for every vendor
+         * @return sum in minor units, count of the matching rows and the rows read to find them
+         */
+        long[] sum(YearMonth month, LocalDate from, LocalDate to, int categoryId, int vendorId) {
+            boolean whole = !month.atDay(1).isBefore(from) && !month.atEndOfMonth().isAfter(to);
+            if (whole && vendorId == ALL) {
+                if (categoryId == ALL) {
+                    return new long[]{sum, size, 0};
+                }
+                return categoryId < categorySums.length
+                        ? new long[]{categorySums[categoryId], categoryCounts[categoryId], 0}
+                        : new long[]{0, 0, 0};
+            }
+            int fromDay = (int) from.toEpochDay();
+            int toDay = (int) to.toEpochDay();
+            long total = 0;
+            long count = 0;
+            for (int i = 0; i < size; i++) {
+                if (epochDays[i] >= fromDay && epochDays[i] <= toDay
+                        && (categoryId == ALL || categoryIds[i] == categoryId)
+                        && (vendorId == ALL || vendorIds[i] == vendorId)) {
+                    total += amounts[i];
+                    count++;
+                }
+            }
+            return new long[]{total, count, size};
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.banktransaction.service;
+
+import org.banktransaction.entity.MonthlyRollup;
+import org.banktransaction.entity.MonthlyRollupId;
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.banktransaction.repository.MonthlyRollupRepository;
+import org.banktransaction.repository.TransactionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the spend of every (category, month) in the {@link MonthlyRollup} table, so monthly averages are
+ * computed from one row per month instead of from the transactions.
+ */
+@Service
+@Order(DataVersion.INDEX_ORDER)
+public class MonthlyRollupService implements ApplicationListener<TransactionsSavedEvent> {
+    private final MonthlyRollupRepository repository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public MonthlyRollupService(MonthlyRollupRepository repository, TransactionRepository transactionRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (repository.count() == 0 && transactionRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        if (event.isReplayed()) {
+            return;
+        }
+        Map<MonthlyRollupId, MonthlyRollup> batchRollups = new HashMap<>();
+        for (Transaction elem : event.getTransactions()) {
+            MonthlyRollupId id = new MonthlyRollupId(CategoryDictionary.keyOf(elem.getCategoryId()),
+                    MonthlyRollupId.monthOf(YearMonth.from(elem.getDate())));
+            MonthlyRollup rollup = batchRollups.computeIfAbsent(id, key -> new MonthlyRollup(key, BigDecimal.ZERO, 0));
+            rollup.setTotalAmount(rollup.getTotalAmount().add(elem.getAmount()));
+            rollup.setTransactionCount(rollup.getTransactionCount() + 1);
+        }
+        merge(batchRollups);
+    }
+
+    /**
+     * Serialized so two writers can't both read a month's row and overwrite each other's increment.
+     */
+    private synchronized void merge(Map<MonthlyRollupId, MonthlyRollup> batchRollups) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<MonthlyRollupId, MonthlyRollup> stored = repository.findAllById(batchRollups.keySet()).stream()
+                    .collect(Collectors.toMap(MonthlyRollup::getId, rollup -> rollup));
+            for (MonthlyRollup rollup : batchRollups.values()) {
+                MonthlyRollup previous = stored.get(rollup.getId());
+                if (previous != null) {
+                    rollup.setTotalAmount(previous.getTotalAmount().add(rollup.getTotalAmount()));
+                    rollup.setTransactionCount(previous.getTransactionCount() + rollup.getTransactionCount());
+                }
+            }
+            repository.saveAll(batchRollups.values());
+        });
+    }
+
+    /**
+     * Recomputes the whole table with one aggregate query over the transactions.
+     */
+    public synchronized void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.deleteAllRollups();
+            List<MonthlyRollup> rollups = new ArrayList<>();
+            for (Object[] row : repository.aggregateTransactionsByCategoryAndMonth()) {
+                int month = MonthlyRollupId.monthOf(YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue()));
+                rollups.add(new MonthlyRollup(new MonthlyRollupId((String) row[0], month),
+                        (BigDecimal) row[3], ((Number) row[4]).longValue()));
+            }
+            repository.saveAll(rollups);
+        });
+    }
+
+    /**
+     * Average spend of the months of the category that have any spend, like
+     * {@link TransactionService#getMonthlyAverageSpendToCategory(List, String)}.
+     */
+    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory(String category) {
+        List<MonthlyRollup> rollups = repository.findByIdCategoryKeyOrderByIdMonth(Transaction.categoryKeyOf(category));
+        Map<String, BigDecimal> categoryToMonthlyAvgSpend = new HashMap<>();
+        categoryToMonthlyAvgSpend.put(category, average(rollups));
+        return categoryToMonthlyAvgSpend;
+    }
+
+    /**
+     * Average spend of the months between {@code from} and {@code to} (both included) that have any spend.
+     */
+    public BigDecimal getMonthlyAverageSpend(String category, YearMonth from, YearMonth to) {
+        return average(repository.findByIdCategoryKeyAndIdMonthBetweenOrderByIdMonth(Transaction.categoryKeyOf(category),
+                MonthlyRollupId.monthOf(from), MonthlyRollupId.monthOf(to)));
+    }
+
+    /**
+     * For every month between {@code from} and {@code to} the spend of the {@code months} calendar months ending
+     * with it, divided by {@code months}. Months without spend count as zero.
+     */
+    public Map<YearMonth, BigDecimal> getRollingMonthlyAverageSpend(String category, int months, YearMonth from, YearMonth to) {
+        int first = MonthlyRollupId.monthOf(from);
+        int last = MonthlyRollupId.monthOf(to);
+        int windowStart = first - months + 1;
+        long[] spend = new long[Math.max(last - windowStart + 1, 0)];
+        for (MonthlyRollup rollup : repository.findByIdCategoryKeyAndIdMonthBetweenOrderByIdMonth(
+                Transaction.categoryKeyOf(category), windowStart, last)) {
+            spend[rollup.getId().getMonth() - windowStart] = rollup.getTotalAmount().movePointRight(2).longValueExact();
+        }
+        Map<YearMonth, BigDecimal> rollingAverage = new LinkedHashMap<>();
+        BigDecimal divisor = BigDecimal.valueOf(months);
+        long windowTotal = 0;
+        for (int month = windowStart; month <= last; month++) {
+            windowTotal += spend[month - windowStart];
+            if (month - months >= windowStart) {
+                windowTotal -= spend[month - months - windowStart];
+            }
+            if (month >= first) {
+                rollingAverage.put(MonthlyRollupId.yearMonthOf(month),
+                        BigDecimal.valueOf(windowTotal, 2).divide(divisor, 2, RoundingMode.DOWN));
+            }
+        }
+        return rollingAverage;
+    }
+
+    private static BigDecimal average(List<MonthlyRollup> rollups) {
+        BigDecimal totalAmount = new BigDecimal("0.00");
+        for (MonthlyRollup rollup : rollups) {
+            totalAmount = totalAmount.add(rollup.getTotalAmount());
+        }
+        return rollups.isEmpty() ? totalAmount : totalAmount.divide(new BigDecimal(rollups.size()), 2, RoundingMode.DOWN);
+    }
+}
@@ -0,0 +1,103 @@
+package org.banktransaction.service;
+
+import jakarta.annotation.PreDestroy;
+import org.banktransaction.entity.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Sums transaction amounts by key on a fork-join pool. The list is split in halves down to {@code threshold} rows,
+ * every leaf fills its own map and the halves are merged on the way back, so no map is shared between threads.
+ * {@link BigDecimal} addition is exact, so the sums equal the sequential ones in value and scale whatever the split.
+ * Lists up to the threshold, or every list when disabled, are summed on the calling thread.
+ */
+@Component
+public class ParallelAggregator {
+    private final boolean enabled;
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param parallelism threads of a dedicated pool, 0 to use the common pool
+     */
+    public ParallelAggregator(@Value("${aggregation.parallel.enabled:true}") boolean enabled,
+                              @Value("${aggregation.parallel.threshold:10000}") int threshold,
+                              @Value("${aggregation.parallel.parallelism:0}") int parallelism) {
+        this.enabled = enabled;
+        this.threshold = Math.max(threshold, 1);
+        this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    public boolean isParallel(int rows) {
+        return enabled && rows > threshold;
+    }
+
+    /**
+     * @return the sum of the amounts of the transactions accepted by {@code filter}, by {@code key}
+     */
+    public <K> Map<K, BigDecimal> sumBy(List<Transaction> transactions, Predicate<Transaction> filter,
+                                        Function<Transaction, K> key) {
+        List<Transaction> rows = transactions instanceof RandomAccess ? transactions : new ArrayList<>(transactions);
+        SumTask<K> task = new SumTask<>(rows, filter, key, 0, rows.size());
+        return isParallel(rows.size()) ? pool.invoke(task) : task.compute();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    private class SumTask<K> extends RecursiveTask<Map<K, BigDecimal>> {
+        private final List<Transaction> transactions;
+        private final Predicate<Transaction> filter;
+        private final Function<Transaction, K> key;
+        private final int from;
+        private final int to;
+
+        SumTask(List<Transaction> transactions, Predicate<Transaction> filter, Function<Transaction, K> key,
+                int from, int to) {
+            this.transactions = transactions;
+            this.filter = filter;
+            this.key = key;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<K, BigDecimal> compute() {
+            if (!enabled || to - from <= threshold) {
+                return sum();
+            }
+            int middle = (from + to) >>> 1;
+            SumTask<K> right = new SumTask<>(transactions, filter, key, middle, to);
+            right.fork();
+            Map<K, BigDecimal> sums = new SumTask<>(transactions, filter, key, from, middle).compute();
+            right.join().forEach((k, amount) -> sums.merge(k, amount, BigDecimal::add));
+            return sums;
+        }
+
+        private Map<K, BigDecimal> sum() {
+            Map<K, BigDecimal> sums = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                Transaction elem = transactions.get(i);
+                if (filter.test(elem)) {
+                    sums.merge(key.apply(elem), elem.getAmount(), BigDecimal::add);
+                }
+            }
+            return sums;
+        }
+    }
+}
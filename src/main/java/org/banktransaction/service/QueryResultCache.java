@@ -0,0 +1,111 @@
+package org.banktransaction.service;
+
+import org.banktransaction.dto.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Least recently used cache of query results. An entry is dropped when the cache is full, when it is older than
+ * the time to live, or when transactions were written after it was computed.
+ */
+@Component
+public class QueryResultCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final DataVersion dataVersion;
+    private final Map<String, Entry> entries;
+    private long cachedVersion;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public QueryResultCache(@Value("${cache.query.max-size:1000}") int maxSize,
+                            @Value("${cache.query.ttl:5m}") Duration ttl,
+                            DataVersion dataVersion) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.dataVersion = dataVersion;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                boolean evict = size() > QueryResultCache.this.maxSize;
+                if (evict) {
+                    evictions++;
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result of the query or computes it with {@code loader}. The loader runs outside the lock,
+     * so two requests missing the same key at once may both compute it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        long version = dataVersion.get();
+        synchronized (this) {
+            if (version != cachedVersion) {
+                invalidations += entries.size();
+                entries.clear();
+                cachedVersion = version;
+            }
+            Entry entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.createdNanos > ttlNanos) {
+                entries.remove(key);
+                expirations++;
+                entry = null;
+            }
+            if (entry != null) {
+                hits++;
+                return (T) entry.value;
+            }
+            misses++;
+        }
+        T value = loader.get();
+        synchronized (this) {
+            if (version == cachedVersion && version == dataVersion.get()) {
+                entries.put(key, new Entry(value, System.nanoTime()));
+            }
+        }
+        return value;
+    }
+
+    public synchronized void clear() {
+        invalidations += entries.size();
+        entries.clear();
+    }
+
+    public synchronized CacheStats getStats() {
+        long requests = hits + misses;
+        return CacheStats.builder()
+                .size(entries.size())
+                .maxSize(maxSize)
+                .hits(hits)
+                .misses(misses)
+                .hitRate(requests == 0 ? 0 : (double) hits / requests)
+                .missRate(requests == 0 ? 0 : (double) misses / requests)
+                .evictions(evictions)
+                .expirations(expirations)
+                .invalidations(invalidations)
+                .dataVersion(cachedVersion)
+                .build();
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long createdNanos;
+
+        Entry(Object value, long createdNanos) {
+            this.value = value;
+            this.createdNanos = createdNanos;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.banktransaction.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.banktransaction.repository.TransactionRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the in-memory indexes when the application starts over a table that already has rows, as with the durable
+ * profile. The saved transactions are published again a keyset page at a time as replayed
+ * {@link TransactionsSavedEvent}s, so the table is read once however many listeners there are and never held in
+ * memory as a whole.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SavedTransactionsReplay {
+    private static final int PAGE_SIZE = 1000;
+
+    private final TransactionRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Runs before the other ready listeners, which then see the indexes of the rows that were there before.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (repository.count() == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        long[] rows = {0};
+        repository.forEachPage(PAGE_SIZE, page -> {
+            if (!page.isEmpty()) {
+                eventPublisher.publishEvent(new TransactionsSavedEvent(this, page, true));
+                rows[0] += page.size();
+            }
+        });
+        log.info("Replayed {} saved transactions to the indexes in {} ms", rows[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,285 @@
+package org.banktransaction.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Data;
+import org.banktransaction.dto.AccountSummary;
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Per-account aggregates split across {@code shards} shards by the hash of the account. Every shard owns its
+ * accounts and is only read and written by its own thread, so shards work in parallel without locks. Saved batches
+ * are split by shard and applied before the save returns. A query about one account runs on its shard only, a
+ * query about all accounts is scattered to every shard and the partial results are merged.
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class ShardedTransactionEngine implements ApplicationListener<TransactionsSavedEvent> {
+    private final Shard[] shards;
+
+    /**
+     * @param shards number of shards, 0 for one per available processor
+     */
+    public ShardedTransactionEngine(@Value("${engine.shards:0}") int shards) {
+        this.shards = new Shard[shards > 0 ? shards : Runtime.getRuntime().availableProcessors()];
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard(i);
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        add(event.getTransactions());
+    }
+
+    public void add(Iterable<Transaction> transactions) {
+        List<List<Transaction>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Transaction elem : transactions) {
+            if (elem.getDate() != null && elem.getAmount() != null) {
+                byShard.get(shardOf(elem.getAccount())).add(elem);
+            }
+        }
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            List<Transaction> batch = byShard.get(i);
+            if (!batch.isEmpty()) {
+                Shard shard = shards[i];
+                writes.add(CompletableFuture.runAsync(() -> batch.forEach(shard::add), shard.executor));
+            }
+        }
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Shard of an account, the default account being {@code ""}.
+     */
+    public int shardOf(String account) {
+        return Math.floorMod(keyOf(account).hashCode(), shards.length);
+    }
+
+    public List<AccountSummary> getAccounts() {
+        List<AccountSummary> accounts = gather(Shard::summaries, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+        accounts.sort(Comparator.comparing(AccountSummary::getAccount));
+        return accounts;
+    }
+
+    /**
+     * @param account only this account, all when {@code null}
+     */
+    public Map<String, BigDecimal> getCategoryToOutgoing(String account) {
+        Map<String, Long> totals = query(account, shard -> shard.outgoing(account), (a, b) -> {
+            b.forEach((category, total) -> a.merge(category, total, Long::sum));
+            return a;
+        });
+        Map<String, BigDecimal> categoryToOutgoing = new HashMap<>();
+        totals.forEach((category, total) -> categoryToOutgoing.put(category, BigDecimal.valueOf(total, 2)));
+        return categoryToOutgoing;
+    }
+
+    /**
+     * Average spend of the category over the months it has transactions in, rounded down like
+     * {@link TransactionService#getMonthlyAverageSpendToCategory}. Shards return their spend per month, which is
+     * summed across shards before averaging.
+     *
+     * @param account only this account, all when {@code null}
+     */
+    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory(String category, String account) {
+        int categoryId = CategoryDictionary.find(category);
+        Map<YearMonth, Long> byMonth = query(account, shard -> shard.monthly(categoryId, account), (a, b) -> {
+            b.forEach((month, total) -> a.merge(month, total, Long::sum));
+            return a;
+        });
+        long total = byMonth.values().stream().mapToLong(Long::longValue).sum();
+        BigDecimal average = BigDecimal.valueOf(total, 2);
+        if (!byMonth.isEmpty()) {
+            average = average.divide(BigDecimal.valueOf(byMonth.size()), 2, RoundingMode.DOWN);
+        }
+        Map<String, BigDecimal> categoryToMonthlyAvgSpend = new HashMap<>();
+        categoryToMonthlyAvgSpend.put(category, average);
+        return categoryToMonthlyAvgSpend;
+    }
+
+    /**
+     * @param account only this account, all when {@code null}
+     */
+    public Optional<Transaction> getHighestSpendByCategoryAndYear(int year, String category, String account) {
+        int categoryId = CategoryDictionary.find(category);
+        return Optional.ofNullable(query(account, shard -> shard.extreme(categoryId, year, account, true),
+                (a, b) -> b == null || (a != null && a.getAmount().compareTo(b.getAmount()) >= 0) ? a : b));
+    }
+
+    /**
+     * @param account only this account, all when {@code null}
+     */
+    public Optional<Transaction> getLowestSpendByCategoryAndYear(int year, String category, String account) {
+        int categoryId = CategoryDictionary.find(category);
+        return Optional.ofNullable(query(account, shard -> shard.extreme(categoryId, year, account, false),
+                (a, b) -> b == null || (a != null && a.getAmount().compareTo(b.getAmount()) <= 0) ? a : b));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the query on the shard of {@code account}, or on every shard merging the results when it is {@code null}.
+     */
+    private <T> T query(String account, Function<Shard, T> query, BinaryOperator<T> merge) {
+        if (account != null) {
+            Shard shard = shards[shardOf(account)];
+            return CompletableFuture.supplyAsync(() -> query.apply(shard), shard.executor).join();
+        }
+        return gather(query, merge);
+    }
+
+    private <T> T gather(Function<Shard, T> query, BinaryOperator<T> merge) {
+        List<CompletableFuture<T>> partials = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            partials.add(CompletableFuture.supplyAsync(() -> query.apply(shard), shard.executor));
+        }
+        T result = partials.get(0).join();
+        for (int i = 1; i < partials.size(); i++) {
+            result = merge.apply(result, partials.get(i).join());
+        }
+        return result;
+    }
+
+    private static String keyOf(String account) {
+        return account == null ? "" : account;
+    }
+
+    /**
+     * Accounts of one shard, only touched by its single thread.
+     */
+    private static class Shard {
+        private final int index;
+        private final ExecutorService executor;
+        private final Map<String, AccountTotals> accounts = new HashMap<>();
+
+        Shard(int index) {
+            this.index = index;
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        void add(Transaction transaction) {
+            accounts.computeIfAbsent(keyOf(transaction.getAccount()), key -> new AccountTotals()).add(transaction);
+        }
+
+        List<AccountSummary> summaries() {
+            List<AccountSummary> summaries = new ArrayList<>(accounts.size());
+            accounts.forEach((account, totals) -> summaries.add(AccountSummary.builder()
+                    .account(account)
+                    .shard(index)
+                    .transactions(totals.transactions)
+                    .total(BigDecimal.valueOf(totals.total, 2))
+                    .build()));
+            return summaries;
+        }
+
+        Map<String, Long> outgoing(String account) {
+            Map<String, Long> outgoing = new HashMap<>();
+            for (AccountTotals totals : accountsOf(account)) {
+                totals.outgoing.forEach((category, total) -> outgoing.merge(category, total, Long::sum));
+            }
+            return outgoing;
+        }
+
+        Map<YearMonth, Long> monthly(int categoryId, String account) {
+            Map<YearMonth, Long> byMonth = new HashMap<>();
+            for (AccountTotals totals : accountsOf(account)) {
+                totals.monthly.getOrDefault(categoryId, Map.of())
+                        .forEach((month, total) -> byMonth.merge(month, total, Long::sum));
+            }
+            return byMonth;
+        }
+
+        Transaction extreme(int categoryId, int year, String account, boolean highest) {
+            Transaction extreme = null;
+            for (AccountTotals totals : accountsOf(account)) {
+                Transaction[] minMax = totals.extremes.get(new CategoryYear(categoryId, year));
+                Transaction candidate = minMax == null ? null : minMax[highest ? 1 : 0];
+                if (candidate != null && (extreme == null
+                        || Integer.signum(candidate.getAmount().compareTo(extreme.getAmount())) == (highest ? 1 : -1))) {
+                    extreme = candidate;
+                }
+            }
+            return extreme;
+        }
+
+        private Collection<AccountTotals> accountsOf(String account) {
+            if (account == null) {
+                return accounts.values();
+            }
+            AccountTotals totals = accounts.get(account);
+            return totals == null ? List.of() : List.of(totals);
+        }
+    }
+
+    /**
+     * Totals of one account: outgoing per category as written, a missing category under {@code ""}, spend per category
+     * id and month and the lowest and highest spend per category id and year, amounts in minor units.
+     */
+    private static class AccountTotals {
+        private final Map<String, Long> outgoing = new HashMap<>();
+        private final Map<Integer, Map<YearMonth, Long>> monthly = new HashMap<>();
+        private final Map<CategoryYear, Transaction[]> extremes = new HashMap<>();
+        private long transactions;
+        private long total;
+
+        void add(Transaction transaction) {
+            long amount = ColumnarTransactionStore.toMinorUnits(transaction.getAmount());
+            outgoing.merge(transaction.getCategory() == null ? "" : transaction.getCategory(), amount, Long::sum);
+            monthly.computeIfAbsent(transaction.getCategoryId(), id -> new HashMap<>())
+                    .merge(YearMonth.from(transaction.getDate()), amount, Long::sum);
+            Transaction[] minMax = extremes.computeIfAbsent(
+                    new CategoryYear(transaction.getCategoryId(), transaction.getDate().getYear()),
+                    key -> new Transaction[]{transaction, transaction});
+            if (transaction.getAmount().compareTo(minMax[0].getAmount()) < 0) {
+                minMax[0] = transaction;
+            }
+            if (transaction.getAmount().compareTo(minMax[1].getAmount()) > 0) {
+                minMax[1] = transaction;
+            }
+            transactions++;
+            total += amount;
+        }
+    }
+
+    @Data
+    private static class CategoryYear {
+        private final int categoryId;
+        private final int year;
+    }
+}
@@ -0,0 +1,226 @@
+package org.banktransaction.service;
+
+import org.banktransaction.dto.HistogramBin;
+import org.banktransaction.dto.SpendDistribution;
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Distribution of spends per (category, month) in log-bucketed histograms, filled as batches are saved. Bucket
+ * {@code i} holds the amounts in {@code (gamma^(i-1), gamma^i]} minor units, so any percentile read from the
+ * histograms is within {@code relativeAccuracy} of the true spend, and the histograms of a window merge by adding
+ * bucket counts: a query costs one merge per month of the window whatever the number of rows.
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class SpendDistributions implements ApplicationListener<TransactionsSavedEvent> {
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, NavigableMap<YearMonth, LogHistogram>> histograms = new HashMap<>();
+
+    public SpendDistributions(@Value("${analytics.distribution.relative-accuracy:0.01}") double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException("analytics.distribution.relative-accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        add(event.getTransactions());
+    }
+
+    public void add(Iterable<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            for (Transaction elem : transactions) {
+                if (elem.getDate() != null && elem.getAmount() != null) {
+                    histograms.computeIfAbsent(elem.getCategoryId(), id -> new TreeMap<>())
+                            .computeIfAbsent(YearMonth.from(elem.getDate()), month -> new LogHistogram())
+                            .add(ColumnarTransactionStore.toMinorUnits(elem.getAmount()), bucketOf(elem.getAmount()));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return histograms.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percentiles and histogram of the spends from month {@code from} to month {@code to} inclusive.
+     *
+     * @param category    only this category, all when {@code null}
+     * @param percentiles between 0 and 100
+     * @param bins        bins of the histogram, each spanning about the same number of buckets
+     */
+    public SpendDistribution getDistribution(String category, YearMonth from, YearMonth to, double[] percentiles,
+                                             int bins) {
+        LogHistogram merged = new LogHistogram();
+        int months = 0;
+        lock.readLock().lock();
+        try {
+            Collection<NavigableMap<YearMonth, LogHistogram>> scopes = category == null
+                    ? histograms.values()
+                    : Optional.ofNullable(histograms.get(CategoryDictionary.find(category)))
+                    .map(List::of).orElse(List.of());
+            for (NavigableMap<YearMonth, LogHistogram> byMonth : scopes) {
+                for (LogHistogram histogram : byMonth.subMap(from, true, to, true).values()) {
+                    merged.merge(histogram);
+                    months++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (double percentile : percentiles) {
+            values.put("p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                    merged.count == 0 ? null : toAmount(merged.quantile(percentile / 100)));
+        }
+        return SpendDistribution.builder()
+                .category(category)
+                .from(from)
+                .to(to)
+                .transactions(merged.count)
+                .min(merged.count == 0 ? null : BigDecimal.valueOf(merged.min, 2))
+                .max(merged.count == 0 ? null : BigDecimal.valueOf(merged.max, 2))
+                .percentiles(values)
+                .relativeAccuracy(relativeAccuracy)
+                .histogram(merged.bins(bins))
+                .monthsMerged(months)
+                .build();
+    }
+
+    /**
+     * Amounts up to one minor unit, refunds included, share bucket 0.
+     */
+    private int bucketOf(BigDecimal amount) {
+        long minorUnits = ColumnarTransactionStore.toMinorUnits(amount);
+        return minorUnits <= 1 ? 0 : (int) Math.ceil(Math.log(minorUnits) / logGamma);
+    }
+
+    /**
+     * The middle of a bucket relative to both its bounds, in minor units.
+     */
+    private double valueOf(int bucket) {
+        return bucket == 0 ? 1 : 2 * Math.pow(gamma, bucket) / (gamma + 1);
+    }
+
+    private BigDecimal toAmount(double minorUnits) {
+        return BigDecimal.valueOf(Math.round(minorUnits), 2);
+    }
+
+    /**
+     * Counts of a contiguous range of buckets starting at {@code offset}, with the exact count, minimum and maximum.
+     */
+    private class LogHistogram {
+        private long[] counts = new long[0];
+        private int offset;
+        private long count;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+
+        void add(long minorUnits, int bucket) {
+            ensureRange(bucket, bucket);
+            counts[bucket - offset]++;
+            count++;
+            min = Math.min(min, minorUnits);
+            max = Math.max(max, minorUnits);
+        }
+
+        void merge(LogHistogram other) {
+            if (other.count == 0) {
+                return;
+            }
+            ensureRange(other.offset, other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+            count += other.count;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        /**
+         * Value of the bucket holding the spend of rank {@code q * (count - 1)}, kept within the exact min and max.
+         */
+        double quantile(double q) {
+            long rank = (long) (q * (count - 1));
+            long seen = 0;
+            int bucket = 0;
+            while (seen <= rank) {
+                seen += counts[bucket++];
+            }
+            return Math.max(min, Math.min(max, valueOf(offset + bucket - 1)));
+        }
+
+        List<HistogramBin> bins(int bins) {
+            List<HistogramBin> result = new ArrayList<>();
+            if (count == 0) {
+                return result;
+            }
+            int first = 0;
+            while (counts[first] == 0) {
+                first++;
+            }
+            int last = counts.length - 1;
+            while (counts[last] == 0) {
+                last--;
+            }
+            int width = (last - first) / bins + 1;
+            for (int start = first; start <= last; start += width) {
+                int end = Math.min(start + width, last + 1);
+                long binCount = 0;
+                for (int i = start; i < end; i++) {
+                    binCount += counts[i];
+                }
+                result.add(HistogramBin.builder()
+                        .lower(toAmount(Math.max(min, lowerBoundOf(offset + start))))
+                        .upper(toAmount(Math.min(max, Math.pow(gamma, offset + end - 1))))
+                        .transactions(binCount)
+                        .build());
+            }
+            return result;
+        }
+
+        private double lowerBoundOf(int bucket) {
+            return bucket == 0 ? Double.NEGATIVE_INFINITY : Math.pow(gamma, bucket - 1);
+        }
+
+        private void ensureRange(int from, int to) {
+            if (counts.length == 0) {
+                counts = new long[to - from + 1];
+                offset = from;
+            } else if (from < offset || to >= offset + counts.length) {
+                int newOffset = Math.min(from, offset);
+                long[] grown = new long[Math.max(to, offset + counts.length - 1) - newOffset + 1];
+                System.arraycopy(counts, 0, grown, offset - newOffset, counts.length);
+                counts = grown;
+                offset = newOffset;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.banktransaction.service;
+
+import lombok.Data;
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Highest and lowest spends per (category, year), kept up to date as batches are saved. Besides the single
+ * minimum and maximum it holds the {@code capacity} largest and smallest spends of every key, so the top-N of a
+ * category and year is read without sorting the transactions.
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class SpendRankIndex implements ApplicationListener<TransactionsSavedEvent> {
+    private static final Comparator<Transaction> BY_AMOUNT = Comparator.comparing(Transaction::getAmount);
+
+    private final int capacity;
+    private final Map<Key, SpendRank> ranks = new ConcurrentHashMap<>();
+
+    public SpendRankIndex(@Value("${index.spend-rank.capacity:10}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        add(event.getTransactions());
+    }
+
+    public void add(Iterable<Transaction> transactions) {
+        for (Transaction elem : transactions) {
+            if (elem.getDate() != null && elem.getAmount() != null) {
+                Key key = new Key(elem.getCategoryId(), elem.getDate().getYear());
+                ranks.computeIfAbsent(key, k -> new SpendRank(capacity)).add(elem);
+            }
+        }
+    }
+
+    public void clear() {
+        ranks.clear();
+    }
+
+    public boolean isEmpty() {
+        return ranks.isEmpty();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Optional<Transaction> getHighest(String category, int year) {
+        SpendRank rank = ranks.get(new Key(CategoryDictionary.find(category), year));
+        return rank == null ? Optional.empty() : Optional.of(rank.getMax());
+    }
+
+    public Optional<Transaction> getLowest(String category, int year) {
+        SpendRank rank = ranks.get(new Key(CategoryDictionary.find(category), year));
+        return rank == null ? Optional.empty() : Optional.of(rank.getMin());
+    }
+
+    /**
+     * @return at most {@code min(limit, capacity)} spends of the category and year, the largest first
+     */
+    public List<Transaction> getTop(String category, int year, int limit) {
+        SpendRank rank = ranks.get(new Key(CategoryDictionary.find(category), year));
+        return rank == null ? List.of() : head(rank.getTop(), limit);
+    }
+
+    /**
+     * @return at most {@code min(limit, capacity)} spends of the category and year, the smallest first
+     */
+    public List<Transaction> getBottom(String category, int year, int limit) {
+        SpendRank rank = ranks.get(new Key(CategoryDictionary.find(category), year));
+        return rank == null ? List.of() : head(rank.getBottom(), limit);
+    }
+
+    private static List<Transaction> head(List<Transaction> sorted, int limit) {
+        return sorted.subList(0, Math.max(0, Math.min(limit, sorted.size())));
+    }
+
+    @Data
+    private static class Key {
+        private final int categoryId;
+        private final int year;
+    }
+
+    private static class SpendRank {
+        private final int capacity;
+        private final PriorityQueue<Transaction> top;
+        private final PriorityQueue<Transaction> bottom;
+        private Transaction min;
+        private Transaction max;
+        private List<Transaction> sortedTop;
+        private List<Transaction> sortedBottom;
+
+        SpendRank(int capacity) {
+            this.capacity = capacity;
+            this.top = new PriorityQueue<>(capacity + 1, BY_AMOUNT);
+            this.bottom = new PriorityQueue<>(capacity + 1, BY_AMOUNT.reversed());
+        }
+
+        synchronized void add(Transaction elem) {
+            if (max == null || elem.getAmount().compareTo(max.getAmount()) > 0) {
+                max = elem;
+            }
+            if (min == null || elem.getAmount().compareTo(min.getAmount()) < 0) {
+                min = elem;
+            }
+            if (offer(top, elem)) {
+                sortedTop = null;
+            }
+            if (offer(bottom, elem)) {
+                sortedBottom = null;
+            }
+        }
+
+        private boolean offer(PriorityQueue<Transaction> heap, Transaction elem) {
+            if (heap.size() < capacity) {
+                return heap.add(elem);
+            }
+            if (capacity > 0 && heap.comparator().compare(elem, heap.peek()) > 0) {
+                heap.poll();
+                return heap.add(elem);
+            }
+            return false;
+        }
+
+        synchronized Transaction getMax() {
+            return max;
+        }
+
+        synchronized Transaction getMin() {
+            return min;
+        }
+
+        synchronized List<Transaction> getTop() {
+            if (sortedTop == null) {
+                List<Transaction> sorted = new ArrayList<>(top);
+                sorted.sort(BY_AMOUNT.reversed());
+                sortedTop = Collections.unmodifiableList(sorted);
+            }
+            return sortedTop;
+        }
+
+        synchronized List<Transaction> getBottom() {
+            if (sortedBottom == null) {
+                List<Transaction> sorted = new ArrayList<>(bottom);
+                sorted.sort(BY_AMOUNT);
+                sortedBottom = Collections.unmodifiableList(sorted);
+            }
+            return sortedBottom;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package org.banktransaction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.dto.IngestionStats;
+import org.banktransaction.dto.IngestionStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the data file on a background thread once the application is ready, so startup doesn't wait for it and a
+ * bad file doesn't stop the application. Until the load completes the readiness probe reports out of service.
+ * An up to date {@link TransactionSnapshot} is loaded instead of the file, and one is written after reading the file.
+ */
+@Slf4j
+@Service
+public class StartupIngestion {
+    private final IngestionPipeline pipeline;
+    private final TransactionSnapshot snapshot;
+    private final TransactionFingerprints fingerprints;
+    private final String fileDir;
+    private final boolean enabled;
+    private final CountDownLatch finished;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "startup-ingestion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile IngestionStatus.State state;
+    private volatile IngestionStatus.Source source;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile IngestionStats stats;
+
+    public StartupIngestion(IngestionPipeline pipeline, TransactionSnapshot snapshot,
+                            TransactionFingerprints fingerprints, TransactionService service,
+                            @Value("${ingestion.on-startup:true}") boolean enabled) {
+        this.pipeline = pipeline;
+        this.snapshot = snapshot;
+        this.fingerprints = fingerprints;
+        this.fileDir = service.fileDir;
+        this.enabled = enabled;
+        this.state = enabled ? IngestionStatus.State.PENDING : IngestionStatus.State.DISABLED;
+        this.finished = new CountDownLatch(enabled ? 1 : 0);
+    }
+
+    /**
+     * Ordered after {@link SavedTransactionsReplay}, so the replay only sees rows that were there before.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.submit(this::ingest);
+        }
+    }
+
+    private void ingest() {
+        startedAt = Instant.now();
+        state = IngestionStatus.State.RUNNING;
+        try {
+            long start = System.nanoTime();
+            OptionalLong fromSnapshot = snapshot.load(fileDir);
+            if (fromSnapshot.isPresent()) {
+                source = IngestionStatus.Source.SNAPSHOT;
+                long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+                stats = IngestionStats.builder()
+                        .rows(fromSnapshot.getAsLong())
+                        .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                        .rowsPerSecond(fromSnapshot.getAsLong() * 1_000_000_000d / elapsedNanos)
+                        .build();
+            } else {
+                source = IngestionStatus.Source.JSON;
+                stats = pipeline.ingest(fileDir, fingerprints.newFileFilter());
+                writeSnapshot();
+            }
+            state = IngestionStatus.State.COMPLETED;
+        } catch (RuntimeException e) {
+            log.error("Ingestion of {} failed", fileDir, e);
+            error = e.getMessage();
+            state = IngestionStatus.State.FAILED;
+        } finally {
+            finishedAt = Instant.now();
+            finished.countDown();
+        }
+    }
+
+    private void writeSnapshot() {
+        if (snapshot.isEnabled()) {
+            try {
+                snapshot.write(fileDir);
+            } catch (IOException e) {
+                log.warn("Snapshot of {} could not be written, the next start reads the file again", fileDir, e);
+            }
+        }
+    }
+
+    /**
+     * Waits until the load completed or failed, at once when it is disabled.
+     */
+    public void awaitFinished() throws InterruptedException {
+        finished.await();
+    }
+
+    public boolean isCompleted() {
+        return state == IngestionStatus.State.COMPLETED || state == IngestionStatus.State.DISABLED;
+    }
+
+    public IngestionStatus getStatus() {
+        IngestionStatus.State current = state;
+        IngestionStats finished = stats;
+        boolean running = current == IngestionStatus.State.RUNNING;
+        long totalBytes = new File(fileDir).length();
+        long bytesRead = current == IngestionStatus.State.COMPLETED ? totalBytes
+                : running && source == IngestionStatus.Source.JSON ? pipeline.getBytesRead() : 0;
+        return IngestionStatus.builder()
+                .state(current)
+                .source(source)
+                .file(fileDir)
+                .totalBytes(totalBytes)
+                .bytesRead(bytesRead)
+                .percent(totalBytes == 0 ? 0 : Math.min(100d, 100d * bytesRead / totalBytes))
+                .rowsWritten(finished != null ? finished.getRows() : running ? pipeline.getRowsWritten() : 0)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .error(error)
+                .stats(finished)
+                .build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,95 @@
+package org.banktransaction.service;
+
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Inserts transactions with plain JDBC batches, skipping the entity bookkeeping of Hibernate for the bulk ingestion.
+ * Ids are taken a block at a time from the sequence of the entity, the way Hibernate's pooled-lo optimizer does,
+ * and set on the transactions, so the listeners of the saved event see them like after {@code saveAll}. A batch is
+ * inserted in one transaction and the saved event is published once it is committed, so a failed write leaves no
+ * part of the batch in the table.
+ */
+@Component
+public class TransactionBatchWriter {
+    private static final String INSERT_SQL =
+            "INSERT INTO transaction (id, date, vendor, type, amount, category, category_key, account) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_ID_BLOCK_SQL = "CALL NEXT VALUE FOR " + Transaction.ID_SEQUENCE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionBatchWriter(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public int write(List<Transaction> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        long[] ids = reserveIds(batch.size());
+        TransactionMetrics.SAVE.record(() -> transactionTemplate.executeWithoutResult(status -> insert(batch, ids)));
+        TransactionMetrics.ROWS_SAVED.increment(batch.size());
+        eventPublisher.publishEvent(new TransactionsSavedEvent(this, batch));
+        return batch.size();
+    }
+
+    private void insert(List<Transaction> batch, long[] ids) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Transaction transaction = batch.get(i);
+                transaction.setId(ids[i]);
+                ps.setLong(1, ids[i]);
+                if (transaction.getDate() != null) {
+                    ps.setDate(2, Date.valueOf(transaction.getDate()));
+                } else {
+                    ps.setNull(2, Types.DATE);
+                }
+                ps.setString(3, transaction.getVendor());
+                if (transaction.getType() != null) {
+                    ps.setInt(4, transaction.getType().ordinal());
+                } else {
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.setBigDecimal(5, transaction.getAmount());
+                ps.setString(6, transaction.getCategory());
+                ps.setString(7, CategoryDictionary.keyOf(transaction.getCategoryId()));
+                ps.setString(8, transaction.getAccount());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+    }
+
+    private long[] reserveIds(int count) {
+        long[] ids = new long[count];
+        for (int from = 0; from < count; from += Transaction.ID_BLOCK_SIZE) {
+            long first = jdbcTemplate.queryForObject(NEXT_ID_BLOCK_SQL, Long.class);
+            for (int i = from; i < Math.min(from + Transaction.ID_BLOCK_SIZE, count); i++) {
+                ids[i] = first + i - from;
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,331 @@
+package org.banktransaction.service;
+
+import lombok.RequiredArgsConstructor;
+import org.banktransaction.dto.ExportFormat;
+import org.banktransaction.dto.ExportStats;
+import org.banktransaction.entity.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the transactions of a category and date range, latest first, to a channel as CSV or as a columnar binary
+ * file. Rows are streamed from a JDBC cursor into one direct buffer that is written to the channel whenever it
+ * fills, so neither the result list nor the file content is held in memory.
+ * <p>
+ * CSV has a header line and the columns date (ISO), vendor, type, amount, category and account, quoted when they
+ * contain a comma, quote or line break. The columnar file is
+ * <pre>
+ * header   magic "BTXC", version (int)
+ * block    row count (int), new string count (int), new strings as length (int) and UTF-8 bytes, then the columns
+ *          epoch day (int[]), amount in minor units (long[]), type ordinal (byte[]), vendor, category and account
+ *          string ids (int[])
+ * end      a block of 0 rows, total row count (long)
+ * </pre>
+ * big-endian, with string ids numbered from 0 in the order the strings first appear. Missing values are stored as
+ * {@code MIN_VALUE} or {@code -1}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionExporter {
+    static final int MAGIC = 0x42545843;
+    static final int VERSION = 1;
+    static final int BLOCK_ROWS = 1 << 16;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int FETCH_SIZE = 10_000;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param category only this category, all when {@code null}
+     * @param from     first day, unbounded when {@code null}
+     * @param to       last day, unbounded when {@code null}
+     */
+    public ExportStats export(ExportFormat format, String category, LocalDate from, LocalDate to,
+                              WritableByteChannel channel) throws IOException {
+        long start = System.nanoTime();
+        StringBuilder sql = new StringBuilder("SELECT date, vendor, type, amount, category, account FROM transaction");
+        List<Object> parameters = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (category != null) {
+            conditions.add("category_key = ?");
+            parameters.add(Transaction.categoryKeyOf(category));
+        }
+        if (from != null) {
+            conditions.add("date >= ?");
+            parameters.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("date <= ?");
+            parameters.add(Date.valueOf(to));
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(category != null ? " ORDER BY category_key DESC, date DESC, id DESC" : " ORDER BY date DESC, id DESC");
+
+        RowSink sink = format == ExportFormat.CSV ? new CsvSink(channel) : new ColumnarSink(channel);
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(sql.toString());
+                statement.setFetchSize(FETCH_SIZE);
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                return statement;
+            }, (ResultSet rs) -> {
+                try {
+                    sink.add(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            sink.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        return ExportStats.builder()
+                .format(format)
+                .rows(sink.rows)
+                .bytes(sink.bytes)
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .rowsPerSecond(sink.rows * 1_000_000_000d / elapsedNanos)
+                .build();
+    }
+
+    /**
+     * Fills a direct buffer and drains it to the channel when it can't take the next value.
+     */
+    private abstract static class RowSink {
+        final WritableByteChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long rows;
+        long bytes;
+
+        RowSink(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        abstract void add(ResultSet rs) throws SQLException, IOException;
+
+        abstract void finish() throws IOException;
+
+        void ensure(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                drain();
+            }
+        }
+
+        void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytes += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    private static class CsvSink extends RowSink {
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final StringBuilder line = new StringBuilder(256);
+
+        CsvSink(WritableByteChannel channel) throws IOException {
+            super(channel);
+            write("date,vendor,type,amount,category,account\n");
+        }
+
+        @Override
+        void add(ResultSet rs) throws SQLException, IOException {
+            line.setLength(0);
+            Date date = rs.getDate(1);
+            if (date != null) {
+                line.append(date.toLocalDate());
+            }
+            line.append(',');
+            appendField(rs.getString(2));
+            line.append(',');
+            int type = rs.getInt(3);
+            if (!rs.wasNull()) {
+                line.append(TYPES[type].name());
+            }
+            line.append(',');
+            BigDecimal amount = rs.getBigDecimal(4);
+            if (amount != null) {
+                line.append(amount.toPlainString());
+            }
+            line.append(',');
+            appendField(rs.getString(5));
+            line.append(',');
+            appendField(rs.getString(6));
+            line.append('\n');
+            write(line);
+            rows++;
+        }
+
+        @Override
+        void finish() throws IOException {
+            drain();
+        }
+
+        private void appendField(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quoted = false;
+            for (int i = 0; i < value.length() && !quoted; i++) {
+                char c = value.charAt(i);
+                quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quoted) {
+                line.append(value);
+                return;
+            }
+            line.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    line.append('"');
+                }
+                line.append(c);
+            }
+            line.append('"');
+        }
+
+        private void write(CharSequence text) throws IOException {
+            CharBuffer chars = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(chars, buffer, true);
+                if (result.isUnderflow()) {
+                    break;
+                }
+                if (result.isOverflow()) {
+                    drain();
+                } else {
+                    result.throwException();
+                }
+            }
+            encoder.reset();
+        }
+    }
+
+    private static class ColumnarSink extends RowSink {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> newStrings = new ArrayList<>();
+        private final int[] epochDays = new int[BLOCK_ROWS];
+        private final long[] amounts = new long[BLOCK_ROWS];
+        private final byte[] types = new byte[BLOCK_ROWS];
+        private final int[] vendors = new int[BLOCK_ROWS];
+        private final int[] categories = new int[BLOCK_ROWS];
+        private final int[] accounts = new int[BLOCK_ROWS];
+        private int size;
+
+        ColumnarSink(WritableByteChannel channel) {
+            super(channel);
+            buffer.putInt(MAGIC).putInt(VERSION);
+        }
+
+        @Override
+        void add(ResultSet rs) throws SQLException, IOException {
+            Date date = rs.getDate(1);
+            epochDays[size] = date == null ? Integer.MIN_VALUE : (int) date.toLocalDate().toEpochDay();
+            vendors[size] = idOf(rs.getString(2));
+            int type = rs.getInt(3);
+            types[size] = rs.wasNull() ? -1 : (byte) type;
+            BigDecimal amount = rs.getBigDecimal(4);
+            amounts[size] = amount == null ? Long.MIN_VALUE : ColumnarTransactionStore.toMinorUnits(amount);
+            categories[size] = idOf(rs.getString(5));
+            accounts[size] = idOf(rs.getString(6));
+            size++;
+            rows++;
+            if (size == BLOCK_ROWS) {
+                writeBlock();
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (size > 0) {
+                writeBlock();
+            }
+            ensure(4 + 4 + 8);
+            buffer.putInt(0).putInt(0).putLong(rows);
+            drain();
+        }
+
+        private int idOf(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = ids.size();
+                ids.put(value, id);
+                newStrings.add(value);
+            }
+            return id;
+        }
+
+        private void writeBlock() throws IOException {
+            ensure(8);
+            buffer.putInt(size).putInt(newStrings.size());
+            for (String value : newStrings) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                ensure(4);
+                buffer.putInt(utf8.length);
+                for (int written = 0; written < utf8.length; ) {
+                    ensure(1);
+                    int count = Math.min(buffer.remaining(), utf8.length - written);
+                    buffer.put(utf8, written, count);
+                    written += count;
+                }
+            }
+            newStrings.clear();
+            putInts(epochDays);
+            for (int written = 0; written < size; ) {
+                ensure(8);
+                int count = Math.min(buffer.remaining() / 8, size - written);
+                buffer.asLongBuffer().put(amounts, written, count);
+                buffer.position(buffer.position() + count * 8);
+                written += count;
+            }
+            for (int written = 0; written < size; ) {
+                ensure(1);
+                int count = Math.min(buffer.remaining(), size - written);
+                buffer.put(types, written, count);
+                written += count;
+            }
+            putInts(vendors);
+            putInts(categories);
+            putInts(accounts);
+            size = 0;
+        }
+
+        private void putInts(int[] values) throws IOException {
+            for (int written = 0; written < size; ) {
+                ensure(4);
+                int count = Math.min(buffer.remaining() / 4, size - written);
+                buffer.asIntBuffer().put(values, written, count);
+                buffer.position(buffer.position() + count * 4);
+                written += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.banktransaction.service;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * How many saved transactions share each 64-bit fingerprint of (date, vendor, type, amount, category, account),
+ * kept in a primitive hash table so a new file is checked against the history without touching the database.
+ * <p>
+ * Counting instead of only marking keeps genuine repeats: two equal coffees on one day in a new file are both
+ * added, while a file that overlaps an earlier one only adds the rows beyond what is already saved.
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class TransactionFingerprints implements ApplicationListener<TransactionsSavedEvent> {
+    private final LongCounts saved = new LongCounts(1 << 16);
+
+    @Override
+    public synchronized void onApplicationEvent(TransactionsSavedEvent event) {
+        for (Transaction elem : event.getTransactions()) {
+            saved.increment(fingerprintOf(elem));
+        }
+    }
+
+    public synchronized int size() {
+        return saved.size();
+    }
+
+    public synchronized int countOf(Transaction transaction) {
+        return saved.get(fingerprintOf(transaction));
+    }
+
+    /**
+     * A filter for the batches of one file: the n-th occurrence of a fingerprint in the file passes only when fewer
+     * than n equal transactions are saved. Batches of the same file may be filtered from several threads.
+     */
+    public UnaryOperator<List<Transaction>> newFileFilter() {
+        LongCounts inFile = new LongCounts(1024);
+        return batch -> {
+            List<Transaction> retained = new ArrayList<>(batch.size());
+            synchronized (this) {
+                for (Transaction elem : batch) {
+                    long fingerprint = fingerprintOf(elem);
+                    if (inFile.increment(fingerprint) > saved.get(fingerprint)) {
+                        retained.add(elem);
+                    }
+                }
+            }
+            return retained;
+        };
+    }
+
+    public static long fingerprintOf(Transaction transaction) {
+        long hash = mix(transaction.getDate() == null ? Long.MIN_VALUE : transaction.getDate().toEpochDay());
+        hash = mix(hash ^ hashOf(transaction.getVendor()));
+        hash = mix(hash ^ (transaction.getType() == null ? -1 : transaction.getType().ordinal()));
+        hash = mix(hash ^ (transaction.getAmount() == null ? Long.MIN_VALUE
+                : ColumnarTransactionStore.toMinorUnits(transaction.getAmount())));
+        hash = mix(hash ^ hashOf(transaction.getCategory()));
+        return mix(hash ^ hashOf(transaction.getAccount()));
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, with {@code null} apart from the empty string.
+     */
+    static long hashOf(String value) {
+        if (value == null) {
+            return 0x9E3779B97F4A7C15L;
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizer of SplitMix64, so every input bit affects every output bit.
+     */
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Open addressing map from long keys to int counts with linear probing. Key 0 marks a free slot, so its count is
+     * kept apart.
+     */
+    static class LongCounts {
+        private long[] keys;
+        private int[] counts;
+        private int size;
+        private int zeroCount;
+
+        LongCounts(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+            keys = new long[slots];
+            counts = new int[slots];
+        }
+
+        int get(long key) {
+            if (key == 0) {
+                return zeroCount;
+            }
+            int mask = keys.length - 1;
+            for (int slot = (int) key & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return counts[slot];
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @return the count after the increment
+         */
+        int increment(long key) {
+            if (key == 0) {
+                if (zeroCount++ == 0) {
+                    size++;
+                }
+                return zeroCount;
+            }
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int slot = (int) key & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            return ++counts[slot];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = (int) oldKeys[i] & mask;
+                    while (keys[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    counts[slot] = oldCounts[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.banktransaction.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.exception.FileCanNotBeParsedException;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reads a json array of transactions one record at a time, so only the current record is held in memory.
+ */
+public class TransactionJsonReader implements Closeable {
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/LLL/yyyy");
+    public static final int DATE = 0;
+    public static final int VENDOR = 1;
+    public static final int TYPE = 2;
+    public static final int AMOUNT = 3;
+    public static final int CATEGORY = 4;
+    public static final int ACCOUNT = 5;
+    private static final int FIELDS = 6;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private boolean started;
+
+    public TransactionJsonReader(String fileDir) throws IOException {
+        this.parser = JSON_FACTORY.createParser(new File(fileDir));
+    }
+
+    /**
+     * @return the next transaction of the array or {@code null} when the array is exhausted
+     */
+    public Transaction next() throws IOException {
+        String[] record = nextRecord();
+        return record == null ? null : toTransaction(record);
+    }
+
+    /**
+     * Reads the raw field values of the next record without converting them, so the conversion can be done on
+     * another thread by {@link #toTransaction(String[])}.
+     *
+     * @return the values indexed by the {@code DATE}..{@code ACCOUNT} constants or {@code null} at the end of the array
+     */
+    public String[] nextRecord() throws IOException {
+        try {
+            if (!started) {
+                started = true;
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new FileCanNotBeParsedException("There is a problem with parsing. Json data is not valid");
+                }
+            }
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new FileCanNotBeParsedException("There is a problem with parsing. Json data is not valid");
+            }
+            return readRecord();
+        } catch (JsonProcessingException e) {
+            throw new FileCanNotBeParsedException("There is a problem with parsing. Json data is not valid");
+        }
+    }
+
+    private String[] readRecord() throws IOException {
+        String[] record = new String[FIELDS];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+                continue;
+            }
+            String text = value == JsonToken.VALUE_NULL ? null : parser.getText();
+            switch (field) {
+                case "date":
+                    record[DATE] = text;
+                    break;
+                case "vendor":
+                    record[VENDOR] = text;
+                    break;
+                case "type":
+                    record[TYPE] = text;
+                    break;
+                case "amount":
+                    record[AMOUNT] = text;
+                    break;
+                case "category":
+                    record[CATEGORY] = text;
+                    break;
+                case "account":
+                    record[ACCOUNT] = text;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Every transaction has a date, a type and an amount: the keyset pages and the indexes are ordered by the date
+     * and the totals sum the amounts.
+     */
+    public static Transaction toTransaction(String[] record) {
+        if (record[DATE] == null || record[TYPE] == null || record[AMOUNT] == null) {
+            throw new FileCanNotBeParsedException("There is a problem with parsing. Json data is not valid");
+        }
+        return Transaction.builder()
+                .date(LocalDate.parse(record[DATE], DATE_FORMATTER))
+                .vendor(record[VENDOR])
+                .type(Transaction.TransactionType.valueOf(record[TYPE]))
+                .amount(new BigDecimal(record[AMOUNT]).setScale(2, RoundingMode.DOWN))
+                .category(record[CATEGORY])
+                .account(record[ACCOUNT])
+                .build();
+    }
+
+    public long getBytesRead() {
+        return parser.getCurrentLocation().getByteOffset();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,44 @@
+package org.banktransaction.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gauges of the state of the application: rows in the dataset, depth of the ingestion queues and the query cache.
+ * The row count comes from {@link DataVersion}, so a scrape never counts the table.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionMeterBinder implements MeterBinder {
+    private final IngestionPipeline pipeline;
+    private final QueryResultCache cache;
+    private final DataVersion dataVersion;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("transactions.dataset.rows", dataVersion, DataVersion::getRows)
+                .description("Transactions saved since startup")
+                .baseUnit("rows")
+                .register(registry);
+        Gauge.builder("transactions.ingestion.queue.depth", pipeline, IngestionPipeline::getParseQueueDepth)
+                .description("Chunks waiting in an ingestion queue")
+                .tag("queue", "parse")
+                .register(registry);
+        Gauge.builder("transactions.ingestion.queue.depth", pipeline, IngestionPipeline::getWriteQueueDepth)
+                .description("Chunks waiting in an ingestion queue")
+                .tag("queue", "write")
+                .register(registry);
+        Gauge.builder("transactions.query.cache.size", cache, c -> c.getStats().getSize())
+                .register(registry);
+        FunctionCounter.builder("transactions.query.cache.requests", cache, c -> c.getStats().getHits())
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("transactions.query.cache.requests", cache, c -> c.getStats().getMisses())
+                .tag("result", "miss")
+                .register(registry);
+    }
+}
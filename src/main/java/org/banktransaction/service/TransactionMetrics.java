@@ -0,0 +1,52 @@
+package org.banktransaction.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+/**
+ * Timers and row counters of the ingestion stages and the page queries. They live in the global registry, which
+ * Spring Boot backs with its own, so classes created outside the context (tests, benchmarks) need no registry.
+ */
+public final class TransactionMetrics {
+    public static final Timer INGESTION = Timer.builder("transactions.ingestion")
+            .description("Time to load a whole file")
+            .register(Metrics.globalRegistry);
+    public static final Timer PARSE = stageTimer("parse");
+    public static final Timer MAP = stageTimer("map");
+    public static final Timer SAVE = stageTimer("save");
+    public static final Timer FIND = stageTimer("find");
+    public static final Counter ROWS_PARSED = rowCounter("parsed");
+    public static final Counter ROWS_SAVED = rowCounter("saved");
+
+    private TransactionMetrics() {
+    }
+
+    /**
+     * Runs a query, recording its time under {@code transactions.query} tagged with its name.
+     */
+    public static <T> T timeQuery(String query, Supplier<T> supplier) {
+        return Timer.builder("transactions.query")
+                .description("Time to compute the result of a page query")
+                .tag("query", query)
+                .register(Metrics.globalRegistry)
+                .record(supplier);
+    }
+
+    private static Timer stageTimer(String stage) {
+        return Timer.builder("transactions.stage")
+                .description("Time spent in an ingestion or repository stage")
+                .tag("stage", stage)
+                .register(Metrics.globalRegistry);
+    }
+
+    private static Counter rowCounter(String stage) {
+        return Counter.builder("transactions.rows")
+                .description("Transactions that went through a stage")
+                .baseUnit("rows")
+                .tag("stage", stage)
+                .register(Metrics.globalRegistry);
+    }
+}
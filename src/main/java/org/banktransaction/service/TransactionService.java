@@ -1,7 +1,13 @@
 package org.banktransaction.service;
 
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.dto.TransactionCursor;
+import org.banktransaction.dto.TransactionPage;
+import org.banktransaction.entity.CategoryDictionary;
 import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
 import org.banktransaction.exception.FileCanNotBeParsedException;
 import org.banktransaction.exception.FileCanNotBeReadException;
 import org.banktransaction.repository.TransactionRepository;
@@ -9,24 +15,46 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
+    public static final int BATCH_SIZE = 1000;
     private final TransactionRepository repository;
-    public String fileDir = "src/main/resources/data.json";
+    private final ApplicationEventPublisher eventPublisher;
+    private final CategoryTotalsIndex categoryTotalsIndex;
+    private final SpendRankIndex spendRankIndex;
+    private final ParallelAggregator aggregator;
+    @Value("${transactions.file-dir:src/main/resources/data.json}")
+    public String fileDir;
+    @Value("${index.verify-on-startup:false}")
+    private boolean verifyIndexesOnStartup;
 
     public List<Transaction> getAllTransactionFromRepository() {
-        return (List<Transaction>) repository.findAll();
+        return TransactionMetrics.FIND.record(() -> (List<Transaction>) repository.findAll());
+    }
+
+    public Page<Transaction> getTransactionsPage(int page, int size) {
+        return TransactionMetrics.FIND.record(
+                () -> repository.findAll(PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "date"))));
     }
 
     public List<Transaction> readFileAndSaveInRepository(String fileDir) {
@@ -37,20 +65,54 @@ public class TransactionService {
             throw new FileCanNotBeReadException("Can't find the file. There is a problem with a file's path, it can not be read!");
         }
         if (transactions != null) {
-            repository.saveAll(transactions);
+            TransactionMetrics.SAVE.record(() -> repository.saveAll(transactions));
+            TransactionMetrics.ROWS_SAVED.increment(transactions.size());
+            eventPublisher.publishEvent(new TransactionsSavedEvent(this, transactions));
         }
         return transactions;
     }
 
+    public long streamFileAndSaveInRepository(String fileDir) {
+        long saved = 0;
+        List<Transaction> batch = new ArrayList<>(BATCH_SIZE);
+        try (TransactionJsonReader reader = new TransactionJsonReader(fileDir)) {
+            Transaction transaction;
+            while ((transaction = reader.next()) != null) {
+                batch.add(transaction);
+                TransactionMetrics.ROWS_PARSED.increment();
+                if (batch.size() == BATCH_SIZE) {
+                    saved += saveBatch(batch);
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+        } catch (IOException e) {
+            throw new FileCanNotBeReadException("Can't find the file. There is a problem with a file's path, it can not be read!");
+        }
+        if (!batch.isEmpty()) {
+            saved += saveBatch(batch);
+        }
+        return saved;
+    }
+
+    public int saveBatch(List<Transaction> batch) {
+        TransactionMetrics.SAVE.record(() -> repository.saveAll(batch));
+        TransactionMetrics.ROWS_SAVED.increment(batch.size());
+        eventPublisher.publishEvent(new TransactionsSavedEvent(this, batch));
+        return batch.size();
+    }
 
     public List<Transaction> parseFile(String fileDir) throws IOException {
         JSONParser jsonParser = new JSONParser();
         List<Transaction> transactions = null;
-        try {
-            JSONArray parsedArray = (JSONArray) jsonParser.parse(new FileReader(new File(fileDir)));
+        Timer.Sample parse = Timer.start();
+        try (FileReader reader = new FileReader(new File(fileDir))) {
+            JSONArray parsedArray = (JSONArray) jsonParser.parse(reader);
+            parse.stop(TransactionMetrics.PARSE);
             if (parsedArray != null) {
-                transactions = new ArrayList<>();
-                mapJsonToTransaction(transactions, parsedArray);
+                List<Transaction> mapped = new ArrayList<>();
+                TransactionMetrics.MAP.record(() -> mapJsonToTransaction(mapped, parsedArray));
+                TransactionMetrics.ROWS_PARSED.increment(mapped.size());
+                transactions = mapped;
             }
         } catch (ParseException e) {
             throw new FileCanNotBeParsedException("There is a problem with parsing. Json data is not valid");
@@ -62,11 +124,12 @@ public class TransactionService {
         for (Object elem : parsedArray) {
             JSONObject jsonElem = (JSONObject) elem;
             Transaction transaction = Transaction.builder()
-                    .date(LocalDate.parse((CharSequence) jsonElem.get("date"), DateTimeFormatter.ofPattern("dd/LLL/yyyy")))
+                    .date(LocalDate.parse((CharSequence) jsonElem.get("date"), TransactionJsonReader.DATE_FORMATTER))
                     .vendor((String) jsonElem.get("vendor"))
                     .type(Transaction.TransactionType.valueOf((String) jsonElem.get("type")))
                     .amount(new BigDecimal((String) jsonElem.get("amount")).setScale(2, RoundingMode.DOWN))
                     .category((String) jsonElem.get("category"))
+                    .account((String) jsonElem.get("account"))
                     .build();
             transactions.add(transaction);
         }
@@ -78,57 +141,122 @@ public class TransactionService {
                 .collect(Collectors.toList());
     }
 
-    public Map<String, BigDecimal> getCategoryToOutgoing(List<Transaction> transactions) {
-        Map<String, BigDecimal> categoryToOutgoing = new HashMap<>();
-        for (Transaction elem : transactions) {
-            if (categoryToOutgoing.containsKey(elem.getCategory())) {
-                BigDecimal previousAmount = categoryToOutgoing.get(elem.getCategory());
-                categoryToOutgoing.put(elem.getCategory(), previousAmount.add(elem.getAmount()));
-            } else {
-                categoryToOutgoing.put(elem.getCategory(), elem.getAmount());
-            }
+    public Map<String, BigDecimal> getCategoryToOutgoing() {
+        return categoryTotalsIndex.getCategoryToOutgoing();
+    }
+
+    /**
+     * Rebuilds and checks read the repository a keyset page at a time, so it is never held in memory as a whole.
+     */
+    public void rebuildCategoryTotals() {
+        categoryTotalsIndex.clear();
+        repository.forEachPage(BATCH_SIZE, categoryTotalsIndex::add);
+    }
+
+    public void rebuildIndexes() {
+        categoryTotalsIndex.clear();
+        spendRankIndex.clear();
+        repository.forEachPage(BATCH_SIZE, page -> {
+            categoryTotalsIndex.add(page);
+            spendRankIndex.add(page);
+        });
+    }
+
+    public boolean isCategoryTotalsConsistent() {
+        CategoryTotalsIndex scanned = new CategoryTotalsIndex();
+        repository.forEachPage(BATCH_SIZE, scanned::add);
+        return categoryTotalsIndex.getCategoryToOutgoing().equals(scanned.getCategoryToOutgoing());
+    }
+
+    /**
+     * The indexes are filled by {@link SavedTransactionsReplay}, checked here once it is done.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexesOnStartup() {
+        if (verifyIndexesOnStartup && !isCategoryTotalsConsistent()) {
+            log.warn("Category totals index differs from a full scan of the repository, rebuilding it");
+            rebuildCategoryTotals();
         }
-        return categoryToOutgoing;
     }
 
+    /**
+     * Summed by {@link ParallelAggregator}, on the calling thread or across its pool depending on the list size.
+     */
+    public Map<String, BigDecimal> getCategoryToOutgoing(List<Transaction> transactions) {
+        return aggregator.sumBy(transactions, elem -> true, Transaction::getCategory);
+    }
+
+    /**
+     * Transactions of a category, latest first, matched by {@link CategoryDictionary} id. Rows without a category
+     * are returned with "" as it and the list passed in is left as it is.
+     */
     public List<Transaction> getTransactionsByCategory(List<Transaction> transactions, String category) {
-        for (Transaction elem : transactions) {
-            if (elem.getCategory() == null) {
-                int index = transactions.indexOf(elem);
-                Transaction transaction = Transaction.builder()
-                        .id(elem.getId())
-                        .category("")
-                        .vendor(elem.getVendor())
-                        .type(elem.getType())
-                        .amount(elem.getAmount())
-                        .date(elem.getDate())
-                        .build();
-                transactions.set(index, transaction);
-            }
-        }
+        int categoryId = categoryIdIn(transactions, category);
         return transactions.stream()
-                .filter(el -> el.getCategory() != null)
-                .filter(el -> el.getCategory().toLowerCase().trim().equals(category.toLowerCase().trim()))
+                .filter(el -> el.getCategoryId() == categoryId)
+                .map(el -> el.getCategory() == null ? withEmptyCategory(el) : el)
                 .sorted(Comparator.comparing(Transaction::getDate).reversed())
                 .collect(Collectors.toList());
     }
 
-    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory(List<Transaction> transactions, String category) {
-        List<Transaction> transactionsByCategory = getTransactionsByCategory(transactions, category);
-        Map<String, BigDecimal> categoryToMonthlySpend = new HashMap<>();
-        Map<String, BigDecimal> categoryToMonthlyAvgSpend = new HashMap<>();
-        BigDecimal totalAmount = new BigDecimal("0.00");
-        for (Transaction elem : transactionsByCategory) {
-            String mountAndYear = elem.getDate().getMonth() + "-" + elem.getDate().getYear();
-            if (categoryToMonthlySpend.containsKey(mountAndYear)) {
-                BigDecimal previousAmount = categoryToMonthlySpend.get(mountAndYear);
-                categoryToMonthlySpend.put(mountAndYear, previousAmount.add(elem.getAmount()));
-            } else {
-                categoryToMonthlySpend.put(mountAndYear, elem.getAmount());
-            }
+    /**
+     * Id of the category to compare with the ids of {@code transactions}. A category the dictionary doesn't know
+     * yet can only be in transactions whose ids weren't looked up, which is done first then.
+     */
+    private static int categoryIdIn(List<Transaction> transactions, String category) {
+        int categoryId = CategoryDictionary.find(category);
+        if (categoryId == CategoryDictionary.UNKNOWN) {
+            transactions.forEach(Transaction::getCategoryId);
+            categoryId = CategoryDictionary.find(category);
         }
+        return categoryId;
+    }
+
+    /**
+     * @param category only transactions of this category, all when {@code null}
+     * @param cursor   where the previous page ended, {@code null} for the first page
+     */
+    public TransactionPage getTransactionsAfter(String category, TransactionCursor cursor, int limit) {
+        List<Transaction> transactions = TransactionMetrics.FIND.record(() -> repository.findPage(category, cursor, limit));
+        String nextCursor = transactions.size() < limit ? null
+                : TransactionCursor.after(transactions.get(transactions.size() - 1)).encode();
+        return TransactionPage.builder()
+                .transactions(transactions)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public List<Transaction> getTransactionsByCategory(String category) {
+        return TransactionMetrics.FIND.record(() -> repository.findByCategory(category)).stream()
+                .map(elem -> elem.getCategory() == null ? withEmptyCategory(elem) : elem)
+                .collect(Collectors.toList());
+    }
 
-        getCategoryToMonthlyAvgSpend(category, categoryToMonthlySpend, categoryToMonthlyAvgSpend, totalAmount);
+    private static Transaction withEmptyCategory(Transaction elem) {
+        return Transaction.builder()
+                .id(elem.getId())
+                .category("")
+                .categoryId(CategoryDictionary.UNCATEGORIZED)
+                .vendor(elem.getVendor())
+                .type(elem.getType())
+                .amount(elem.getAmount())
+                .date(elem.getDate())
+                .build();
+    }
+
+    /**
+     * Spend is summed by month with {@link ParallelAggregator}, without filtering the list by category first, and
+     * the same per-row code runs whether the aggregator splits the list or not. Only the number of months and their
+     * total make the average, so months are keyed by number instead of by name.
+     */
+    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory(List<Transaction> transactions, String category) {
+        int categoryId = categoryIdIn(transactions, category);
+        Map<Integer, BigDecimal> monthlySpend = aggregator.sumBy(transactions,
+                elem -> elem.getCategoryId() == categoryId,
+                elem -> elem.getDate().getYear() * 12 + elem.getDate().getMonthValue());
+        Map<String, BigDecimal> categoryToMonthlyAvgSpend = new HashMap<>();
+        getCategoryToMonthlyAvgSpend(category, monthlySpend.values(), categoryToMonthlyAvgSpend, new BigDecimal("0.00"));
         return categoryToMonthlyAvgSpend;
     }
 
@@ -142,6 +270,22 @@ public class TransactionService {
         return sortedByAmount.isEmpty() ? new Transaction() : sortedByAmount.get(0);
     }
 
+    public Optional<Transaction> getHighestSpendByCategoryAndYear(int year, String category) {
+        return spendRankIndex.getHighest(category, year);
+    }
+
+    public Optional<Transaction> getLowestSpendByCategoryAndYear(int year, String category) {
+        return spendRankIndex.getLowest(category, year);
+    }
+
+    public List<Transaction> getTopSpendsByCategoryAndYear(int year, String category, int limit) {
+        return spendRankIndex.getTop(category, year, limit);
+    }
+
+    public int getTopSpendsCapacity() {
+        return spendRankIndex.getCapacity();
+    }
+
     private List<Transaction> getSortedByYearAndCategory(int year, String category, List<Transaction> transactions) {
         List<Transaction> transactionsByCategory = getTransactionsByCategory(transactions, category);
         List<Transaction> sortedByAmount = new ArrayList<>();
@@ -154,12 +298,12 @@ public class TransactionService {
         return sortedByAmount;
     }
 
-    private static void getCategoryToMonthlyAvgSpend(String category, Map<String, BigDecimal> categoryToMonthlySpend, Map<String, BigDecimal> categoryToMonthlyAvgSpend, BigDecimal totalAmount) {
-        for (BigDecimal elem : categoryToMonthlySpend.values()) {
+    private static void getCategoryToMonthlyAvgSpend(String category, Collection<BigDecimal> monthlySpends, Map<String, BigDecimal> categoryToMonthlyAvgSpend, BigDecimal totalAmount) {
+        for (BigDecimal elem : monthlySpends) {
             totalAmount = totalAmount.add(elem);
         }
-        if (categoryToMonthlySpend.size() > 0) {
-            BigDecimal mountsQuantity = new BigDecimal(categoryToMonthlySpend.size());
+        if (monthlySpends.size() > 0) {
+            BigDecimal mountsQuantity = new BigDecimal(monthlySpends.size());
             BigDecimal totalAmountAvg = totalAmount.divide(mountsQuantity, 2, RoundingMode.DOWN);
             categoryToMonthlyAvgSpend.put(category, totalAmountAvg);
         } else {
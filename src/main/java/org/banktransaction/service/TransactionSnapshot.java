@@ -0,0 +1,246 @@
+package org.banktransaction.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.banktransaction.dto.TransactionCursor;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary copy of the loaded transactions, so a restart with an unchanged data file skips the json parsing.
+ * <p>
+ * Layout: a 64 byte header, fixed-width records and a dictionary of the vendor, category and account strings.
+ * <pre>
+ * header   magic "BTXS", version, record count, records offset, dictionary offset, dictionary size,
+ *          CRC32 of everything after the header, size and modification time of the source file, record size
+ * record   epoch day (int), amount in minor units (long), type ordinal (byte), vendor id (int), category id (int),
+ *          account id (int)
+ * entry    length (int), UTF-8 bytes
+ * </pre>
+ * Missing values are stored as {@code MIN_VALUE} or {@code -1}.
+ */
+@Slf4j
+@Component
+public class TransactionSnapshot {
+    static final int MAGIC = 0x42545853;
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 4 + 8 + 1 + 4 + 4 + 4;
+    private static final int PAGE_SIZE = 1000;
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final TransactionRepository repository;
+    private final TransactionBatchWriter writer;
+    private final boolean enabled;
+    private final Path dir;
+
+    public TransactionSnapshot(TransactionRepository repository, TransactionBatchWriter writer,
+                               @Value("${snapshot.enabled:true}") boolean enabled,
+                               @Value("${snapshot.dir:${java.io.tmpdir}/bank-transaction-snapshots}") String dir) {
+        this.repository = repository;
+        this.writer = writer;
+        this.enabled = enabled;
+        this.dir = Paths.get(dir);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * One snapshot per source file, named after the file and a hash of its absolute path.
+     */
+    public Path snapshotOf(String fileDir) {
+        Path source = Paths.get(fileDir).toAbsolutePath().normalize();
+        return dir.resolve(source.getFileName() + "-" + Integer.toHexString(source.toString().hashCode()) + ".snapshot");
+    }
+
+    /**
+     * Writes the transactions of the repository as the snapshot of {@code fileDir}, replacing the previous one
+     * atomically.
+     */
+    public long write(String fileDir) throws IOException {
+        BasicFileAttributes source = Files.readAttributes(Paths.get(fileDir), BasicFileAttributes.class);
+        Path snapshot = snapshotOf(fileDir);
+        Files.createDirectories(snapshot.getParent());
+        Path temporary = Files.createTempFile(snapshot.getParent(), snapshot.getFileName().toString(), ".tmp");
+        try {
+            long records = writeSnapshot(temporary, source);
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Wrote snapshot {} of {} transactions", snapshot, records);
+            return records;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private long writeSnapshot(Path file, BasicFileAttributes source) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+            Map<String, Integer> ids = new HashMap<>();
+            List<String> strings = new ArrayList<>();
+            long records = 0;
+            TransactionCursor cursor = null;
+            List<Transaction> page;
+            do {
+                page = repository.findPage(null, cursor, PAGE_SIZE);
+                for (Transaction elem : page) {
+                    out.writeInt(elem.getDate() == null ? Integer.MIN_VALUE : (int) elem.getDate().toEpochDay());
+                    out.writeLong(elem.getAmount() == null ? Long.MIN_VALUE : ColumnarTransactionStore.toMinorUnits(elem.getAmount()));
+                    out.writeByte(elem.getType() == null ? -1 : elem.getType().ordinal());
+                    out.writeInt(idOf(elem.getVendor(), ids, strings));
+                    out.writeInt(idOf(elem.getCategory(), ids, strings));
+                    out.writeInt(idOf(elem.getAccount(), ids, strings));
+                    records++;
+                }
+                if (!page.isEmpty()) {
+                    cursor = TransactionCursor.after(page.get(page.size() - 1));
+                }
+            } while (page.size() == PAGE_SIZE);
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(records)
+                    .putLong(HEADER_SIZE)
+                    .putLong(HEADER_SIZE + records * RECORD_SIZE)
+                    .putInt(strings.size())
+                    .putInt((int) crc.getValue())
+                    .putLong(source.size())
+                    .putLong(source.lastModifiedTime().toMillis())
+                    .putInt(RECORD_SIZE)
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+            return records;
+        }
+    }
+
+    private static int idOf(String value, Map<String, Integer> ids, List<String> strings) {
+        if (value == null) {
+            return -1;
+        }
+        return ids.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    /**
+     * Loads the snapshot of {@code fileDir} into the repository if it exists, matches the current file and its
+     * checksum holds. Nothing is written otherwise. The mapping outlives the channel, which is closed before loading.
+     *
+     * @return the rows loaded, empty when the json file has to be read instead
+     */
+    public OptionalLong load(String fileDir) {
+        Path snapshot = snapshotOf(fileDir);
+        if (!enabled || !Files.isRegularFile(snapshot)) {
+            return OptionalLong.empty();
+        }
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                log.warn("Snapshot {} is too large to map, reading {} instead", snapshot, fileDir);
+                return OptionalLong.empty();
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String problem = validate(buffer, Files.readAttributes(Paths.get(fileDir), BasicFileAttributes.class));
+            if (problem != null) {
+                log.info("Snapshot {} {}, reading {} instead", snapshot, problem, fileDir);
+                return OptionalLong.empty();
+            }
+        } catch (IOException e) {
+            log.warn("Snapshot {} can't be read, reading {} instead", snapshot, fileDir, e);
+            return OptionalLong.empty();
+        }
+        long rows = loadRecords(buffer);
+        log.info("Loaded {} transactions from snapshot {}", rows, snapshot);
+        return OptionalLong.of(rows);
+    }
+
+    /**
+     * @return why the snapshot can't be used or {@code null} when it can
+     */
+    private static String validate(ByteBuffer buffer, BasicFileAttributes source) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            return "is not a snapshot";
+        }
+        if (buffer.getInt(4) != VERSION || buffer.getInt(56) != RECORD_SIZE) {
+            return "has an old format";
+        }
+        if (buffer.getLong(40) != source.size() || buffer.getLong(48) != source.lastModifiedTime().toMillis()) {
+            return "is stale";
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_SIZE));
+        if ((int) crc.getValue() != buffer.getInt(36)) {
+            return "is corrupt";
+        }
+        return null;
+    }
+
+    private long loadRecords(ByteBuffer buffer) {
+        long records = buffer.getLong(8);
+        int recordsOffset = (int) buffer.getLong(16);
+        String[] strings = readDictionary(buffer, (int) buffer.getLong(24), buffer.getInt(32));
+        List<Transaction> batch = new ArrayList<>(PAGE_SIZE);
+        long loaded = 0;
+        for (long row = 0; row < records; row++) {
+            int position = recordsOffset + (int) row * RECORD_SIZE;
+            int epochDay = buffer.getInt(position);
+            long amount = buffer.getLong(position + 4);
+            byte type = buffer.get(position + 12);
+            int vendor = buffer.getInt(position + 13);
+            int category = buffer.getInt(position + 17);
+            int account = buffer.getInt(position + 21);
+            batch.add(Transaction.builder()
+                    .date(epochDay == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay))
+                    .amount(amount == Long.MIN_VALUE ? null : BigDecimal.valueOf(amount, 2))
+                    .type(type < 0 ? null : TYPES[type])
+                    .vendor(vendor < 0 ? null : strings[vendor])
+                    .category(category < 0 ? null : strings[category])
+                    .account(account < 0 ? null : strings[account])
+                    .build());
+            if (batch.size() == PAGE_SIZE) {
+                loaded += writer.write(batch);
+                batch = new ArrayList<>(PAGE_SIZE);
+            }
+        }
+        return loaded + writer.write(batch);
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer, int offset, int size) {
+        String[] strings = new String[size];
+        ByteBuffer entries = buffer.duplicate().position(offset);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[entries.getInt()];
+            entries.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+}
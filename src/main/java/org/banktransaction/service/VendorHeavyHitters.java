@@ -0,0 +1,267 @@
+package org.banktransaction.service;
+
+import org.banktransaction.dto.TopVendors;
+import org.banktransaction.dto.VendorSpend;
+import org.banktransaction.entity.CategoryDictionary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Top vendors by spend and by number of transactions, overall and per category, in memory that doesn't grow with
+ * the number of vendors. Every scope counts spend and transactions in a count-min sketch and keeps the
+ * {@code capacity} vendors with the largest estimates in a heap, both updated as batches are saved, so a query only
+ * reads the heap. Estimates never undercount, and exceed the true value by at most {@code epsilon} times the total
+ * of the scope with probability {@code 1 - delta}. The exact ranking, read from {@link MonthPartitionedStore}, is
+ * there to validate the sketches. Vendors are matched like categories, ignoring case and surrounding spaces.
+ */
+@Component
+@Order(DataVersion.INDEX_ORDER)
+public class VendorHeavyHitters implements ApplicationListener<TransactionsSavedEvent> {
+    private static final int ALL = Integer.MIN_VALUE;
+
+    private final MonthPartitionedStore store;
+    private final double epsilon;
+    private final double delta;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Scope> scopes = new HashMap<>();
+
+    /**
+     * @param epsilon  error of the estimates relative to the total of their scope
+     * @param delta    probability that an estimate is off by more than that
+     * @param capacity vendors ranked per scope, the largest {@code limit} of a query
+     */
+    public VendorHeavyHitters(MonthPartitionedStore store,
+                              @Value("${analytics.vendors.epsilon:0.001}") double epsilon,
+                              @Value("${analytics.vendors.delta:0.01}") double delta,
+                              @Value("${analytics.vendors.capacity:100}") int capacity) {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1) || capacity < 1) {
+            throw new IllegalArgumentException("analytics.vendors needs 0 < epsilon < 1, 0 < delta < 1 and capacity > 0");
+        }
+        this.store = store;
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onApplicationEvent(TransactionsSavedEvent event) {
+        add(event.getTransactions());
+    }
+
+    public void add(Iterable<Transaction> transactions) {
+        lock.writeLock().lock();
+        try {
+            for (Transaction elem : transactions) {
+                if (elem.getAmount() != null) {
+                    long key = TransactionFingerprints.mix(TransactionFingerprints.hashOf(
+                            Transaction.categoryKeyOf(elem.getVendor())));
+                    long amount = ColumnarTransactionStore.toMinorUnits(elem.getAmount());
+                    scopeOf(ALL).add(key, elem.getVendor(), amount);
+                    scopeOf(elem.getCategoryId()).add(key, elem.getVendor(), amount);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return scopes.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Estimated top vendors, largest first.
+     *
+     * @param category only this category, all when {@code null}
+     * @param byCount  rank by number of transactions instead of spend
+     * @param limit    at most {@link #getCapacity()} vendors are returned
+     */
+    public TopVendors getTop(String category, boolean byCount, int limit) {
+        lock.readLock().lock();
+        try {
+            int categoryId = category == null ? ALL : CategoryDictionary.find(category);
+            Scope scope = scopes.get(categoryId);
+            List<VendorSpend> vendors = new ArrayList<>();
+            long overestimate = 0;
+            if (scope != null) {
+                List<Candidate> candidates = new ArrayList<>(byCount ? scope.byCount.heap : scope.bySpend.heap);
+                candidates.sort(Comparator.comparingLong((Candidate c) -> c.estimate).reversed());
+                for (Candidate candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+                    vendors.add(VendorSpend.builder()
+                            .vendor(candidate.vendor)
+                            .transactions(scope.counts.estimate(candidate.key))
+                            .total(BigDecimal.valueOf(scope.spends.estimate(candidate.key), 2))
+                            .build());
+                }
+                overestimate = (long) Math.ceil(epsilon * (byCount ? scope.counts.total : scope.spends.total));
+            }
+            return TopVendors.builder()
+                    .by(byCount ? "count" : "spend")
+                    .category(category)
+                    .exact(false)
+                    .maxOverestimate(byCount ? BigDecimal.valueOf(overestimate) : BigDecimal.valueOf(overestimate, 2))
+                    .confidence(1 - delta)
+                    .vendors(vendors)
+                    .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Exact top vendors over every saved transaction, to validate {@link #getTop}. Reads every row of the scope.
+     */
+    public TopVendors getExactTop(String category, boolean byCount, int limit) {
+        return TopVendors.builder()
+                .by(byCount ? "count" : "spend")
+                .category(category)
+                .exact(true)
+                .maxOverestimate(BigDecimal.ZERO)
+                .confidence(1)
+                .vendors(store.getTopVendors(null, null, category, limit, byCount))
+                .build();
+    }
+
+    private Scope scopeOf(int categoryId) {
+        return scopes.computeIfAbsent(categoryId, id -> new Scope(epsilon, delta, capacity));
+    }
+
+    /**
+     * Sketches and heaps of the vendors of one category, or of all.
+     */
+    private static class Scope {
+        private final CountMinSketch spends;
+        private final CountMinSketch counts;
+        private final TopCandidates bySpend;
+        private final TopCandidates byCount;
+
+        Scope(double epsilon, double delta, int capacity) {
+            spends = new CountMinSketch(epsilon, delta);
+            counts = new CountMinSketch(epsilon, delta);
+            bySpend = new TopCandidates(capacity);
+            byCount = new TopCandidates(capacity);
+        }
+
+        /**
+         * Refunds and zero amounts are counted but not added to the spend, whose sketch only takes increments.
+         */
+        void add(long key, String vendor, long amount) {
+            byCount.offer(key, vendor, counts.add(key, 1));
+            if (amount > 0) {
+                bySpend.offer(key, vendor, spends.add(key, amount));
+            }
+        }
+    }
+
+    /**
+     * {@code depth} rows of {@code width} counters, every key adding to one counter per row. A counter only grows by
+     * the keys sharing it, so the smallest of a key's counters is its closest overestimate. With
+     * {@code width = e / epsilon} and {@code depth = ln(1 / delta)} the overestimate stays under epsilon times the
+     * total with probability {@code 1 - delta}.
+     */
+    static class CountMinSketch {
+        private final long[][] counters;
+        private final int width;
+        private long total;
+
+        CountMinSketch(double epsilon, double delta) {
+            width = (int) Math.ceil(Math.E / epsilon);
+            counters = new long[(int) Math.ceil(Math.log(1 / delta))][width];
+        }
+
+        /**
+         * @return the estimate of the key after adding
+         */
+        long add(long key, long increment) {
+            total += increment;
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < counters.length; row++) {
+                int column = columnOf(key, row);
+                counters[row][column] += increment;
+                estimate = Math.min(estimate, counters[row][column]);
+            }
+            return estimate;
+        }
+
+        long estimate(long key) {
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < counters.length; row++) {
+                estimate = Math.min(estimate, counters[row][columnOf(key, row)]);
+            }
+            return estimate;
+        }
+
+        /**
+         * Column of the key in a row from two halves of its hash, {@code h1 + row * h2}, which is as good as one
+         * independent hash per row.
+         */
+        private int columnOf(long key, int row) {
+            int hash = (int) key + row * (int) (key >>> 32);
+            return Math.floorMod(hash, width);
+        }
+    }
+
+    /**
+     * The {@code capacity} keys with the largest estimates seen, in a min-heap so the smallest is replaced first.
+     */
+    static class TopCandidates {
+        private final int capacity;
+        private final PriorityQueue<Candidate> heap;
+        private final Map<Long, Candidate> byKey = new HashMap<>();
+
+        TopCandidates(int capacity) {
+            this.capacity = capacity;
+            this.heap = new PriorityQueue<>(capacity + 1, Comparator.comparingLong((Candidate c) -> c.estimate));
+        }
+
+        void offer(long key, String vendor, long estimate) {
+            Candidate candidate = byKey.get(key);
+            if (candidate != null) {
+                heap.remove(candidate);
+                candidate.estimate = estimate;
+                heap.add(candidate);
+            } else if (heap.size() < capacity) {
+                add(new Candidate(key, vendor, estimate));
+            } else if (estimate > heap.peek().estimate) {
+                byKey.remove(heap.poll().key);
+                add(new Candidate(key, vendor, estimate));
+            }
+        }
+
+        private void add(Candidate candidate) {
+            heap.add(candidate);
+            byKey.put(candidate.key, candidate);
+        }
+    }
+
+    private static class Candidate {
+        private final long key;
+        private final String vendor;
+        private long estimate;
+
+        Candidate(long key, String vendor, long estimate) {
+            this.key = key;
+            this.vendor = vendor;
+            this.estimate = estimate;
+        }
+    }
+}
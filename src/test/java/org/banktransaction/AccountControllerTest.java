@@ -0,0 +1,86 @@
+package org.banktransaction;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.StartupIngestion;
+import org.banktransaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"transactions.file-dir=src/test/resources/test-data.json", "snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class AccountControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StartupIngestion ingestion;
+    @Autowired
+    private TransactionService service;
+    private String account;
+    private String category;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ingestion.awaitFinished();
+        account = UUID.randomUUID().toString();
+        category = UUID.randomUUID().toString();
+        service.saveBatch(List.of(
+                ofAccount("2021-03-01", "10.00", category),
+                ofAccount("2021-04-01", "20.00", category),
+                ofAccount("2021-04-02", "7.50", null)));
+    }
+
+    @Test
+    void shouldListAccountWithItsTotals() throws Exception {
+        mockMvc.perform(get("/api/accounts"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.account == '" + account + "')].transactions", contains(3)))
+                .andExpect(jsonPath("$[?(@.account == '" + account + "')].total", contains(37.5)));
+    }
+
+    @Test
+    void shouldAnswerForOneAccount() throws Exception {
+        mockMvc.perform(get("/api/accounts/total-outgoing").param("account", account))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + category + "']").value(30.0))
+                .andExpect(jsonPath("$['']").value(7.5));
+        mockMvc.perform(get("/api/accounts/monthly-average").param("category", category).param("account", account))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + category + "']").value(15.0));
+        mockMvc.perform(get("/api/accounts/highest-spend").param("category", category).param("year", "2021")
+                        .param("account", account))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(20.0));
+        mockMvc.perform(get("/api/accounts/lowest-spend").param("category", category).param("year", "2021")
+                        .param("account", account))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(10.0));
+    }
+
+    @Test
+    void shouldRejectMissingOrUnknownSpend() throws Exception {
+        mockMvc.perform(get("/api/accounts/monthly-average"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/accounts/highest-spend").param("category", category).param("year", "2000")
+                        .param("account", account))
+                .andExpect(status().isNotFound());
+    }
+
+    private Transaction ofAccount(String date, String amount, String category) {
+        Transaction transaction = transaction(date, amount, category);
+        transaction.setAccount(account);
+        return transaction;
+    }
+}
@@ -0,0 +1,80 @@
+package org.banktransaction;
+
+import org.banktransaction.dto.StoreFootprint;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.ColumnarTransactionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarTransactionStoreTest {
+    private ColumnarTransactionStore store;
+    private Transaction transaction1;
+    private Transaction transaction2;
+    private Transaction transaction3;
+    private Transaction transaction4;
+    private Transaction transaction5;
+
+    @BeforeEach
+    void setUp() {
+        transaction1 = transaction("2021-12-06", "845.03", "Groceries", Transaction.TransactionType.INTERNET);
+        transaction2 = transaction("2020-11-18", "75.03", "MyMonthlyDD", Transaction.TransactionType.CARD);
+        transaction3 = transaction("2020-11-17", "775.03", "MyMonthlyDD", Transaction.TransactionType.DIRECT_DEBIT);
+        transaction4 = transaction("2020-03-05", "1475.03", "MyMonthlyDD", Transaction.TransactionType.INTERNET);
+        transaction5 = transaction("2020-03-05", "877.03", "", Transaction.TransactionType.CARD);
+        long id = 1;
+        for (Transaction elem : List.of(transaction1, transaction2, transaction3, transaction4, transaction5)) {
+            elem.setId(id++);
+        }
+        store = new ColumnarTransactionStore();
+        store.addAll(List.of(transaction1, transaction2, transaction3, transaction4, transaction5));
+    }
+
+    @Test
+    void shouldGetTotalOutgoingPerCategory() {
+        Map<String, BigDecimal> expected = new HashMap<>();
+        expected.put("", new BigDecimal("877.03"));
+        expected.put("Groceries", new BigDecimal("845.03"));
+        expected.put("MyMonthlyDD", new BigDecimal("2325.09"));
+        assertEquals(expected, store.getCategoryToOutgoing());
+    }
+
+    @Test
+    void shouldTotalUncategorizedWithEmptyCategory() {
+        store.addAll(List.of(transaction("2021-05-01", "7.50", null)));
+
+        assertEquals(new BigDecimal("884.53"), store.getCategoryToOutgoing().get(""));
+        assertFalse(store.getCategoryToOutgoing().containsKey(null));
+    }
+
+    @Test
+    void shouldGetMonthlyAverageSpendInCategory() {
+        Map<String, BigDecimal> expected = new HashMap<>();
+        expected.put(" mymonthlydd", new BigDecimal("1162.54"));
+        assertEquals(expected, store.getMonthlyAverageSpendToCategory(" mymonthlydd"));
+    }
+
+    @Test
+    void shouldGetHighestAndLowestSpendByCategoryAndYear() {
+        assertEquals(transaction4, store.getHighestSpendByCategoryAndYear(2020, "MyMonthlyDD"));
+        assertEquals(transaction2, store.getLowestSpendByCategoryAndYear(2020, "MyMonthlyDD"));
+        assertEquals(new Transaction(), store.getLowestSpendByCategoryAndYear(2000, "MyMonthlyDD"));
+    }
+
+    @Test
+    void shouldReportFootprintOfColumnsAndEntityList() {
+        StoreFootprint footprint = store.getFootprint();
+        assertEquals(5, footprint.getRows());
+        assertTrue(footprint.getColumnarBytes() > 0);
+        assertTrue(footprint.getEntityListBytes() > 0);
+    }
+}
@@ -0,0 +1,59 @@
+package org.banktransaction;
+
+import org.banktransaction.dto.InboxFile;
+import org.banktransaction.dto.IngestionStatus;
+import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.InboxWatcher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {"ingestion.on-startup=false", "ingestion.inbox.enabled=true", "ingestion.inbox.settle=100ms"})
+class InboxWatcherTest {
+    private static Path inbox;
+
+    @Autowired
+    private InboxWatcher watcher;
+    @Autowired
+    private TransactionRepository repository;
+
+    @DynamicPropertySource
+    static void inboxDir(DynamicPropertyRegistry registry) throws IOException {
+        inbox = Files.createTempDirectory("inbox");
+        registry.add("ingestion.inbox.dir", inbox::toString);
+    }
+
+    @Test
+    void shouldAppendNewFilesAndSkipRowsAlreadySaved() throws Exception {
+        long before = repository.count();
+
+        Files.copy(Path.of("src/test/resources/test-data.json"), inbox.resolve("first.json"));
+        List<InboxFile> files = awaitFiles(1);
+        assertEquals(IngestionStatus.State.COMPLETED, files.get(0).getState());
+        assertEquals(5, files.get(0).getStats().getRows());
+
+        Path copy = Files.copy(Path.of("src/test/resources/test-data.json"), inbox.resolve("copy.json.part"));
+        Files.move(copy, inbox.resolve("copy.json"), StandardCopyOption.ATOMIC_MOVE);
+        files = awaitFiles(2);
+        assertEquals(0, files.get(1).getStats().getRows());
+        assertEquals(5, files.get(1).getStats().getRowsSkipped());
+        assertEquals(before + 5, repository.count());
+    }
+
+    private List<InboxFile> awaitFiles(int count) throws InterruptedException {
+        for (int i = 0; i < 300 && watcher.getFiles().size() < count; i++) {
+            Thread.sleep(100);
+        }
+        return watcher.getFiles();
+    }
+}
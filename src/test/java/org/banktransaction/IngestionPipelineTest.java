@@ -0,0 +1,136 @@
+package org.banktransaction;
+
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.IngestionStats;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.exception.FileCanNotBeParsedException;
+import org.banktransaction.exception.FileCanNotBeReadException;
+import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.IngestionPipeline;
+import org.banktransaction.service.TransactionBatchWriter;
+import org.banktransaction.service.TransactionFingerprints;
+import org.banktransaction.service.TransactionService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "ingestion.on-startup=false")
+class IngestionPipelineTest {
+    @Autowired
+    private IngestionPipeline pipeline;
+    @Autowired
+    private TransactionRepository repository;
+    @Autowired
+    private TransactionService service;
+    @Autowired
+    private TransactionFingerprints fingerprints;
+    @Autowired
+    private TransactionBatchWriter writer;
+
+    @Test
+    void shouldIngestAllRowsOfFile() {
+        long before = repository.count();
+        IngestionStats stats = pipeline.ingest("src/test/resources/test-data.json");
+        assertEquals(5, stats.getRows());
+        assertEquals(before + 5, repository.count());
+        assertTrue(service.isCategoryTotalsConsistent());
+    }
+
+    @Test
+    void shouldGiveBatchAndEntityInsertsDistinctIds() {
+        String category = UUID.randomUUID().toString();
+        List<Transaction> batch = new SyntheticTransactions(7).list(120);
+        List<Transaction> entities = new SyntheticTransactions(8).list(70);
+        batch.forEach(elem -> elem.setCategory(category));
+        entities.forEach(elem -> elem.setCategory(category));
+
+        writer.write(batch);
+        service.saveBatch(entities);
+        writer.write(batch.subList(0, 30));
+
+        Set<Long> ids = repository.findByCategory(category).stream().map(Transaction::getId).collect(Collectors.toSet());
+        assertEquals(120 + 70 + 30, ids.size());
+    }
+
+    @Test
+    void shouldSkipRowsAlreadySavedButKeepRepeatsWithinFile() throws IOException {
+        String vendor = UUID.randomUUID().toString();
+        Path first = Files.createTempFile("statement", ".json");
+        Path second = Files.createTempFile("statement", ".json");
+        try {
+            Files.writeString(first, json(vendor, "10.00", "10.00", "20.00"));
+            Files.writeString(second, json(vendor, "10.00", "20.00", "30.00", "10.00", "10.00"));
+            long before = repository.count();
+
+            IngestionStats firstStats = pipeline.ingest(first.toString(), fingerprints.newFileFilter());
+            IngestionStats secondStats = pipeline.ingest(second.toString(), fingerprints.newFileFilter());
+            IngestionStats againStats = pipeline.ingest(second.toString(), fingerprints.newFileFilter());
+
+            assertEquals(3, firstStats.getRows());
+            assertEquals(2, secondStats.getRows());
+            assertEquals(3, secondStats.getRowsSkipped());
+            assertEquals(0, againStats.getRows());
+            assertEquals(5, againStats.getRowsSkipped());
+            assertEquals(before + 5, repository.count());
+        } finally {
+            Files.delete(first);
+            Files.delete(second);
+        }
+    }
+
+    @Test
+    void shouldKeepWholeBatchesWrittenBeforeInvalidRecord() throws IOException {
+        Path file = Files.createTempFile("statement", ".json");
+        try {
+            String[] amounts = new String[2500];
+            Arrays.fill(amounts, "1.00");
+            String valid = json(UUID.randomUUID().toString(), amounts);
+            Files.writeString(file, valid.substring(0, valid.length() - 1) + ",{\"date\":\"06/Dec/2021\"}]");
+            long before = repository.count();
+
+            Assertions.assertThrows(FileCanNotBeParsedException.class, () -> pipeline.ingest(file.toString()));
+
+            long saved = repository.count() - before;
+            assertTrue(saved <= 2000);
+            assertEquals(0, saved % 1000);
+            assertTrue(service.isCategoryTotalsConsistent());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static String json(String vendor, String... amounts) {
+        StringBuilder json = new StringBuilder("[");
+        for (String amount : amounts) {
+            json.append(json.length() > 1 ? "," : "")
+                    .append("{\"date\":\"06/Dec/2021\",\"vendor\":\"").append(vendor)
+                    .append("\",\"type\":\"CARD\",\"amount\":\"").append(amount)
+                    .append("\",\"category\":\"Groceries\"}");
+        }
+        return json.append("]").toString();
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeReadExceptionIfFilesPathNotValid() {
+        Assertions.assertThrows(FileCanNotBeReadException.class, () -> pipeline.ingest("wrong"));
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeParsedExceptionIfJsonFileDataIsNotValid() {
+        Assertions.assertThrows(FileCanNotBeParsedException.class,
+                () -> pipeline.ingest("src/test/resources/incorrect-test-data.json"));
+    }
+}
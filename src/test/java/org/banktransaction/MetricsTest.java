@@ -0,0 +1,33 @@
+package org.banktransaction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldExposeIngestionQueryAndRequestMetricsInPrometheusFormat() throws Exception {
+        mockMvc.perform(get("/total-outgoing")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("transactions_dataset_rows")))
+                .andExpect(content().string(containsString("transactions_stage_seconds_count{application=\"Bank Transaction\",stage=\"save\",}")))
+                .andExpect(content().string(containsString("transactions_query_seconds_count{application=\"Bank Transaction\",query=\"total-outgoing\",}")))
+                .andExpect(content().string(containsString("http_server_requests_gc_seconds_count{application=\"Bank Transaction\",method=\"GET\",uri=\"/total-outgoing\",}")));
+    }
+}
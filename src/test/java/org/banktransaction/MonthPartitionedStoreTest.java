@@ -0,0 +1,98 @@
+package org.banktransaction;
+
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.RangeSpend;
+import org.banktransaction.dto.VendorSpend;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.MonthPartitionedStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MonthPartitionedStoreTest {
+    private List<Transaction> transactions;
+    private MonthPartitionedStore store;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new SyntheticTransactions(11).list(20_000);
+        store = new MonthPartitionedStore();
+        store.add(transactions);
+    }
+
+    @Test
+    void shouldSumAnyRangeLikeFullScan() {
+        Random random = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            LocalDate from = LocalDate.of(2017, 1, 1).plusDays(random.nextInt(5 * 365));
+            LocalDate to = from.plusDays(random.nextInt(400));
+            String category = random.nextBoolean() ? null : SyntheticTransactions.CATEGORIES[random.nextInt(5)];
+            String vendor = random.nextInt(4) == 0 ? transactions.get(random.nextInt(transactions.size())).getVendor() : null;
+
+            RangeSpend spend = store.getSpend(from, to, category, vendor);
+
+            List<Transaction> expected = transactions.stream()
+                    .filter(inRange(from, to))
+                    .filter(elem -> category == null || Transaction.categoryKeyOf(elem.getCategory()).equals(Transaction.categoryKeyOf(category)))
+                    .filter(elem -> vendor == null || elem.getVendor().equals(vendor))
+                    .collect(Collectors.toList());
+            assertEquals(expected.size(), spend.getTransactions());
+            assertEquals(expected.stream().map(Transaction::getAmount).reduce(new BigDecimal("0.00"), BigDecimal::add),
+                    spend.getTotal());
+            assertEquals(expected.stream().collect(Collectors.groupingBy(elem -> YearMonth.from(elem.getDate()),
+                            Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add))),
+                    Map.copyOf(spend.getByMonth()));
+        }
+    }
+
+    @Test
+    void shouldAnswerWholeMonthsFromPartitionTotals() {
+        RangeSpend spend = store.getSpend(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 3, 31), "groceries ", null);
+
+        assertEquals(0, spend.getRowsScanned());
+        assertEquals(3, spend.getByMonth().size());
+    }
+
+    @Test
+    void shouldMatchNothingForUnknownCategoryOrVendor() {
+        LocalDate from = LocalDate.of(2017, 1, 1);
+        LocalDate to = LocalDate.of(2021, 12, 31);
+
+        assertEquals(0, store.getSpend(from, to, "no such category", null).getTransactions());
+        assertEquals(0, store.getSpend(from, to, null, "no such vendor").getTransactions());
+        assertEquals(List.of(), store.getTopVendors(from, to, "no such category", 5));
+    }
+
+    @Test
+    void shouldRankVendorsBySpendInRange() {
+        LocalDate from = LocalDate.of(2021, 1, 15);
+        LocalDate to = LocalDate.of(2021, 6, 14);
+
+        List<VendorSpend> top = store.getTopVendors(from, to, "Groceries", 3);
+
+        Map<String, BigDecimal> expected = transactions.stream()
+                .filter(inRange(from, to))
+                .filter(elem -> "Groceries".equals(elem.getCategory()))
+                .collect(Collectors.groupingBy(Transaction::getVendor,
+                        Collectors.reducing(new BigDecimal("0.00"), Transaction::getAmount, BigDecimal::add)));
+        List<BigDecimal> largest = expected.values().stream().sorted(Comparator.reverseOrder()).limit(3)
+                .collect(Collectors.toList());
+        assertEquals(largest, top.stream().map(VendorSpend::getTotal).collect(Collectors.toList()));
+        assertEquals(expected.get(top.get(0).getVendor()), top.get(0).getTotal());
+    }
+
+    private static Predicate<Transaction> inRange(LocalDate from, LocalDate to) {
+        return elem -> !elem.getDate().isBefore(from) && !elem.getDate().isAfter(to);
+    }
+}
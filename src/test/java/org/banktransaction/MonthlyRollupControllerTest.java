@@ -0,0 +1,42 @@
+package org.banktransaction;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "ingestion.on-startup=false")
+@AutoConfigureMockMvc
+class MonthlyRollupControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldGiveRollingAverageOfEveryMonthInRange() throws Exception {
+        mockMvc.perform(get("/api/monthly-average/rolling").param("category", "Groceries").param("months", "3")
+                        .param("from", "2021-01").param("to", "2021-04"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+    }
+
+    @Test
+    void shouldRejectTooLongWindowOrRange() throws Exception {
+        mockMvc.perform(get("/api/monthly-average/rolling").param("category", "Groceries").param("months", "0")
+                        .param("from", "2021-01").param("to", "2021-04"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/monthly-average/rolling").param("category", "Groceries").param("months", "1000000000")
+                        .param("from", "2021-01").param("to", "2021-04"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/monthly-average/rolling").param("category", "Groceries").param("months", "3")
+                        .param("from", "0001-01").param("to", "9999-12"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/monthly-average").param("category", "Groceries")
+                        .param("from", "2021-04").param("to", "2021-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,74 @@
+package org.banktransaction;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.MonthlyRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Import(MonthlyRollupService.class)
+class MonthlyRollupServiceTest {
+    @Autowired
+    private MonthlyRollupService service;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() {
+        transactions = List.of(
+                transaction("2020-01-05", "100.00", "MyMonthlyDD"),
+                transaction("2020-01-20", "50.50", "mymonthlydd "),
+                transaction("2020-03-05", "300.00", "MyMonthlyDD"),
+                transaction("2020-03-05", "877.03", "Groceries"));
+        transactionRepository.saveAll(transactions);
+        service.onApplicationEvent(new TransactionsSavedEvent(this, transactions.subList(0, 2)));
+        service.onApplicationEvent(new TransactionsSavedEvent(this, transactions.subList(2, 4)));
+    }
+
+    @Test
+    void shouldGetMonthlyAverageSpendInCategory() {
+        Map<String, BigDecimal> expected = Map.of("MyMonthlyDD", new BigDecimal("225.25"));
+        assertEquals(expected, service.getMonthlyAverageSpendToCategory("MyMonthlyDD"));
+    }
+
+    @Test
+    void shouldGetMonthlyAverageSpendInMonthRange() {
+        assertEquals(new BigDecimal("150.50"),
+                service.getMonthlyAverageSpend("MyMonthlyDD", YearMonth.of(2019, 6), YearMonth.of(2020, 2)));
+        assertEquals(new BigDecimal("0.00"),
+                service.getMonthlyAverageSpend("MyMonthlyDD", YearMonth.of(2021, 1), YearMonth.of(2021, 2)));
+    }
+
+    @Test
+    void shouldGetRollingMonthlyAverageSpend() {
+        Map<YearMonth, BigDecimal> expected = new LinkedHashMap<>();
+        expected.put(YearMonth.of(2020, 1), new BigDecimal("75.25"));
+        expected.put(YearMonth.of(2020, 2), new BigDecimal("75.25"));
+        expected.put(YearMonth.of(2020, 3), new BigDecimal("150.00"));
+        expected.put(YearMonth.of(2020, 4), new BigDecimal("150.00"));
+        assertEquals(expected,
+                service.getRollingMonthlyAverageSpend("MyMonthlyDD", 2, YearMonth.of(2020, 1), YearMonth.of(2020, 4)));
+    }
+
+    @Test
+    void shouldRebuildSameRollupsFromTransactions() {
+        service.rebuild();
+        assertEquals(Map.of("MyMonthlyDD", new BigDecimal("225.25")), service.getMonthlyAverageSpendToCategory("MyMonthlyDD"));
+        assertEquals(Map.of("Groceries", new BigDecimal("877.03")), service.getMonthlyAverageSpendToCategory("Groceries"));
+    }
+}
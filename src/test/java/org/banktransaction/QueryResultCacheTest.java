@@ -0,0 +1,60 @@
+package org.banktransaction;
+
+import org.banktransaction.dto.CacheStats;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.banktransaction.service.DataVersion;
+import org.banktransaction.service.QueryResultCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryResultCacheTest {
+    private DataVersion dataVersion;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        dataVersion = new DataVersion();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldComputeQueryOnceUntilDataChanges() {
+        QueryResultCache cache = new QueryResultCache(10, Duration.ofMinutes(5), dataVersion);
+        assertEquals(1, cache.get("key", loads::incrementAndGet));
+        assertEquals(1, cache.get("key", loads::incrementAndGet));
+        dataVersion.onApplicationEvent(new TransactionsSavedEvent(this, List.of()));
+        assertEquals(2, cache.get("key", loads::incrementAndGet));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getInvalidations());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        QueryResultCache cache = new QueryResultCache(2, Duration.ofMinutes(5), dataVersion);
+        cache.get("first", loads::incrementAndGet);
+        cache.get("second", loads::incrementAndGet);
+        cache.get("first", loads::incrementAndGet);
+        cache.get("third", loads::incrementAndGet);
+        assertEquals(1, cache.get("first", loads::incrementAndGet));
+        assertEquals(4, cache.get("second", loads::incrementAndGet));
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void shouldExpireEntriesOlderThanTimeToLive() throws InterruptedException {
+        QueryResultCache cache = new QueryResultCache(10, Duration.ofMillis(1), dataVersion);
+        cache.get("key", loads::incrementAndGet);
+        Thread.sleep(5);
+        assertEquals(2, cache.get("key", loads::incrementAndGet));
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+}
@@ -0,0 +1,100 @@
+package org.banktransaction;
+
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.AccountSummary;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.CategoryTotalsIndex;
+import org.banktransaction.service.ParallelAggregator;
+import org.banktransaction.service.ShardedTransactionEngine;
+import org.banktransaction.service.SpendRankIndex;
+import org.banktransaction.service.TransactionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedTransactionEngineTest {
+    private List<Transaction> transactions;
+    private TransactionService service;
+    private ShardedTransactionEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new SyntheticTransactions(23).list(20_000);
+        CategoryTotalsIndex categoryTotals = new CategoryTotalsIndex();
+        categoryTotals.add(transactions);
+        service = new TransactionService(null, event -> { }, categoryTotals, new SpendRankIndex(2),
+                new ParallelAggregator(false, 10000, 0));
+        engine = new ShardedTransactionEngine(4);
+        for (int from = 0; from < transactions.size(); from += 1000) {
+            engine.add(transactions.subList(from, from + 1000));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void shouldMergeShardsLikeOneSetOfTransactions() {
+        assertEquals(service.getCategoryToOutgoing(), engine.getCategoryToOutgoing(null));
+        for (String category : SyntheticTransactions.CATEGORIES) {
+            assertEquals(service.getMonthlyAverageSpendToCategory(transactions, category),
+                    engine.getMonthlyAverageSpendToCategory(category, null));
+            for (int year = 2017; year <= 2021; year++) {
+                assertEquals(service.getHighestSpendByCategoryAndYear(year, category, transactions).getAmount(),
+                        engine.getHighestSpendByCategoryAndYear(year, category, null).orElseThrow().getAmount());
+                assertEquals(service.getLowestSpendByCategoryAndYear(year, category, transactions).getAmount(),
+                        engine.getLowestSpendByCategoryAndYear(year, category, null).orElseThrow().getAmount());
+            }
+        }
+    }
+
+    @Test
+    void shouldAnswerForOneAccountFromItsShard() {
+        String account = transactions.get(0).getAccount();
+        List<Transaction> ofAccount = transactions.stream()
+                .filter(elem -> account.equals(elem.getAccount()))
+                .collect(Collectors.toList());
+
+        assertEquals(service.getCategoryToOutgoing(ofAccount), engine.getCategoryToOutgoing(account));
+        assertEquals(service.getMonthlyAverageSpendToCategory(ofAccount, "Groceries"),
+                engine.getMonthlyAverageSpendToCategory("Groceries", account));
+        assertEquals(service.getHighestSpendByCategoryAndYear(2021, "Groceries", ofAccount).getAmount(),
+                engine.getHighestSpendByCategoryAndYear(2021, "Groceries", account).orElseThrow().getAmount());
+        assertEquals(List.of(), List.copyOf(engine.getCategoryToOutgoing("no such account").values()));
+    }
+
+    @Test
+    void shouldKeepOutgoingWithoutCategoryUnderEmptyName() {
+        ShardedTransactionEngine uncategorized = new ShardedTransactionEngine(2);
+        try {
+            uncategorized.add(List.of(transaction("2021-05-01", "7.50", null)));
+
+            assertEquals(Map.of("", new BigDecimal("7.50")), uncategorized.getCategoryToOutgoing(null));
+        } finally {
+            uncategorized.shutdown();
+        }
+    }
+
+    @Test
+    void shouldSpreadAccountsOverShards() {
+        List<AccountSummary> accounts = engine.getAccounts();
+
+        assertEquals(transactions.size(), accounts.stream().mapToLong(AccountSummary::getTransactions).sum());
+        assertEquals(transactions.stream().map(Transaction::getAccount).distinct().count(), accounts.size());
+        for (AccountSummary account : accounts) {
+            assertEquals(engine.shardOf(account.getAccount()), account.getShard());
+        }
+        assertTrue(accounts.stream().map(AccountSummary::getShard).distinct().count() > 1);
+    }
+}
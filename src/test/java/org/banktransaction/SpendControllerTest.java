@@ -0,0 +1,93 @@
+package org.banktransaction;
+
+import org.banktransaction.service.StartupIngestion;
+import org.banktransaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"transactions.file-dir=src/test/resources/test-data.json", "snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class SpendControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StartupIngestion ingestion;
+    @Autowired
+    private TransactionService service;
+    private String category;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ingestion.awaitFinished();
+        category = UUID.randomUUID().toString();
+        service.saveBatch(List.of(
+                transaction("2021-03-01", "10.00", category),
+                transaction("2021-03-15", "20.00", category),
+                transaction("2021-04-01", "5.00", category)));
+    }
+
+    @Test
+    void shouldSumSpendOfDateRange() throws Exception {
+        mockMvc.perform(get("/api/spend").param("from", "2021-03-01").param("to", "2021-03-31")
+                        .param("category", category))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions").value(2))
+                .andExpect(jsonPath("$.total").value(30.0));
+        mockMvc.perform(get("/api/spend").param("days", "18").param("to", "2021-04-01")
+                        .param("category", category))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions").value(2))
+                .andExpect(jsonPath("$.total").value(25.0));
+    }
+
+    @Test
+    void shouldRejectInvalidSpendWindow() throws Exception {
+        mockMvc.perform(get("/api/spend"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend").param("from", "2021-03-01").param("days", "7"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend").param("days", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend").param("from", "2021-02-01").param("to", "2021-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend/vendors").param("days", "7").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldGiveDistributionOfMonths() throws Exception {
+        mockMvc.perform(get("/api/spend/distribution").param("from", "2021-03").param("to", "2021-04")
+                        .param("category", category))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions").value(3))
+                .andExpect(jsonPath("$.monthsMerged").value(2))
+                .andExpect(jsonPath("$.min").value(5.0))
+                .andExpect(jsonPath("$.max").value(20.0));
+    }
+
+    @Test
+    void shouldRejectInvalidDistribution() throws Exception {
+        mockMvc.perform(get("/api/spend/distribution").param("to", "2021-04"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend/distribution").param("months", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend/distribution").param("from", "2021-05").param("to", "2021-04"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend/distribution").param("months", "3").param("bins", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/spend/distribution").param("months", "3").param("percentiles", "50,101"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,78 @@
+package org.banktransaction;
+
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.HistogramBin;
+import org.banktransaction.dto.SpendDistribution;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.SpendDistributions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpendDistributionsTest {
+    private static final double ACCURACY = 0.01;
+
+    private List<Transaction> transactions;
+    private SpendDistributions distributions;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new SyntheticTransactions(17).list(30_000);
+        distributions = new SpendDistributions(ACCURACY);
+        distributions.add(transactions);
+    }
+
+    @Test
+    void shouldEstimatePercentilesWithinRelativeAccuracy() {
+        for (String category : new String[]{null, "Groceries", "Travel"}) {
+            YearMonth from = YearMonth.of(2019, 4);
+            YearMonth to = YearMonth.of(2021, 2);
+            List<BigDecimal> sorted = transactions.stream()
+                    .filter(elem -> !YearMonth.from(elem.getDate()).isBefore(from) && !YearMonth.from(elem.getDate()).isAfter(to))
+                    .filter(elem -> category == null || category.equals(elem.getCategory()))
+                    .map(Transaction::getAmount)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            SpendDistribution distribution = distributions.getDistribution(category, from, to,
+                    new double[]{0, 50, 90, 99, 100}, 10);
+
+            assertEquals(sorted.size(), distribution.getTransactions());
+            assertEquals(sorted.get(0), distribution.getMin());
+            assertEquals(sorted.get(sorted.size() - 1), distribution.getMax());
+            if (category != null) {
+                assertEquals(23, distribution.getMonthsMerged());
+            }
+            assertWithinAccuracy(sorted.get((int) (0.5 * (sorted.size() - 1))), distribution.getPercentiles().get("p50"));
+            assertWithinAccuracy(sorted.get((int) (0.9 * (sorted.size() - 1))), distribution.getPercentiles().get("p90"));
+            assertWithinAccuracy(sorted.get((int) (0.99 * (sorted.size() - 1))), distribution.getPercentiles().get("p99"));
+            assertEquals(distribution.getMax(), distribution.getPercentiles().get("p100"));
+            assertTrue(distribution.getHistogram().size() <= 10);
+            assertEquals(sorted.size(), distribution.getHistogram().stream().mapToLong(HistogramBin::getTransactions).sum());
+        }
+    }
+
+    @Test
+    void shouldReturnNoPercentilesForEmptyWindow() {
+        SpendDistribution distribution = distributions.getDistribution("no such category", YearMonth.of(2020, 1),
+                YearMonth.of(2020, 12), new double[]{50}, 10);
+
+        assertEquals(0, distribution.getTransactions());
+        assertNull(distribution.getPercentiles().get("p50"));
+        assertEquals(List.of(), distribution.getHistogram());
+    }
+
+    private static void assertWithinAccuracy(BigDecimal expected, BigDecimal actual) {
+        BigDecimal error = actual.subtract(expected).abs();
+        assertTrue(error.compareTo(expected.multiply(BigDecimal.valueOf(ACCURACY)).add(new BigDecimal("0.01"))) <= 0,
+                () -> "expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,92 @@
+package org.banktransaction;
+
+import org.banktransaction.dto.IngestionStatus;
+import org.banktransaction.event.TransactionsSavedEvent;
+import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.CategoryTotalsIndex;
+import org.banktransaction.service.IngestionPipeline;
+import org.banktransaction.service.ParallelAggregator;
+import org.banktransaction.service.SavedTransactionsReplay;
+import org.banktransaction.service.SpendRankIndex;
+import org.banktransaction.service.StartupIngestion;
+import org.banktransaction.service.TransactionFingerprints;
+import org.banktransaction.service.TransactionService;
+import org.banktransaction.service.TransactionSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"transactions.file-dir=src/test/resources/test-data.json", "snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class StartupIngestionTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StartupIngestion startupIngestion;
+    @Autowired
+    private IngestionPipeline pipeline;
+    @Autowired
+    private TransactionSnapshot snapshot;
+    @Autowired
+    private TransactionFingerprints fingerprints;
+    @Autowired
+    private TransactionRepository repository;
+
+    @Test
+    void shouldLoadFileInBackgroundAndThenReportReady() throws Exception {
+        awaitFinished(startupIngestion);
+
+        mockMvc.perform(get("/api/ingestion/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsWritten").value(5))
+                .andExpect(jsonPath("$.percent").value(100.0));
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    @Test
+    void shouldReportFailureOfInvalidFileWithoutThrowing() throws InterruptedException {
+        TransactionService service = new TransactionService(null, event -> { }, new CategoryTotalsIndex(), new SpendRankIndex(2),
+                new ParallelAggregator(true, 10000, 0));
+        service.fileDir = "src/test/resources/incorrect-test-data.json";
+        StartupIngestion failing = new StartupIngestion(pipeline, snapshot, fingerprints, service, true);
+
+        failing.start();
+        awaitFinished(failing);
+
+        assertEquals(IngestionStatus.State.FAILED, failing.getStatus().getState());
+        assertFalse(failing.isCompleted());
+        failing.stop();
+    }
+
+    @Test
+    void shouldReplaySavedRowsAsReplayedEvents() throws InterruptedException {
+        awaitFinished(startupIngestion);
+        List<TransactionsSavedEvent> events = new ArrayList<>();
+
+        new SavedTransactionsReplay(repository, event -> events.add((TransactionsSavedEvent) event)).replayOnStartup();
+
+        assertEquals(repository.count(), events.stream().mapToLong(event -> event.getTransactions().size()).sum());
+        assertTrue(events.stream().allMatch(TransactionsSavedEvent::isReplayed));
+    }
+
+    private static void awaitFinished(StartupIngestion ingestion) throws InterruptedException {
+        for (int i = 0; i < 300 && ingestion.getStatus().getFinishedAt() == null; i++) {
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.banktransaction;
+
+import org.banktransaction.entity.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Hand-written transactions for tests that check exact results, {@code SyntheticTransactions} makes larger sets.
+ */
+public final class TestTransactions {
+    private TestTransactions() {
+    }
+
+    public static Transaction transaction(String date, String amount, String category) {
+        return transaction(date, amount, category, Transaction.TransactionType.CARD);
+    }
+
+    public static Transaction transaction(String date, String amount, String category, Transaction.TransactionType type) {
+        return Transaction.builder()
+                .date(LocalDate.parse(date))
+                .vendor("Vendor")
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .category(category)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package org.banktransaction;
+
+import com.jayway.jsonpath.JsonPath;
+import org.banktransaction.controller.TransactionApiController;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.StartupIngestion;
+import org.banktransaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"transactions.file-dir=src/test/resources/test-data.json", "snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class TransactionApiControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StartupIngestion ingestion;
+    @Autowired
+    private TransactionService service;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ingestion.awaitFinished();
+    }
+
+    @Test
+    void shouldPageCategoryWithCursor() throws Exception {
+        String category = saveDays(5);
+
+        String first = mockMvc.perform(get("/api/transactions").param("category", category).param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(3))
+                .andExpect(jsonPath("$.transactions[0].date").value("2021-01-05"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/transactions").param("category", category).param("limit", "3")
+                        .param("cursor", JsonPath.<String>read(first, "$.nextCursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactions.length()").value(2))
+                .andExpect(jsonPath("$.transactions[0].date").value("2021-01-02"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectInvalidLimitAndCursor() throws Exception {
+        mockMvc.perform(get("/api/transactions").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions/stream").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamCategoryAsJsonLines() throws Exception {
+        String category = saveDays(3);
+
+        MvcResult result = mockMvc.perform(get("/api/transactions/stream").param("category", category))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TransactionApiController.NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("2021-01-03", JsonPath.read(lines.get(0), "$.date"));
+        assertEquals("2021-01-01", JsonPath.read(lines.get(2), "$.date"));
+    }
+
+    @Test
+    void shouldExportCategoryAndRangeAsCsv() throws Exception {
+        String category = saveDays(3);
+
+        MvcResult result = mockMvc.perform(get("/api/transactions/export").param("category", category)
+                        .param("from", "2021-01-02").param("to", "2021-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().string("date,vendor,type,amount,category,account\n"
+                        + "2021-01-03,Vendor,CARD,10.00," + category + ",\n"
+                        + "2021-01-02,Vendor,CARD,10.00," + category + ",\n"));
+    }
+
+    @Test
+    void shouldRejectInvalidExport() throws Exception {
+        mockMvc.perform(get("/api/transactions/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/transactions/export").param("from", "2021-02-01").param("to", "2021-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Saves one transaction a day from 2021-01-01 in a new category, so the results don't depend on other tests.
+     */
+    private String saveDays(int days) {
+        String category = UUID.randomUUID().toString();
+        List<Transaction> batch = new ArrayList<>();
+        for (int day = 1; day <= days; day++) {
+            batch.add(transaction(LocalDate.of(2021, 1, day).toString(), "10.00", category));
+        }
+        service.saveBatch(batch);
+        return category;
+    }
+}
@@ -0,0 +1,62 @@
+package org.banktransaction;
+
+import org.banktransaction.service.StartupIngestion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"transactions.file-dir=src/test/resources/test-data.json", "snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class TransactionControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StartupIngestion ingestion;
+
+    @Test
+    void shouldRenderTransactionsPage() throws Exception {
+        mockMvc.perform(get("/").param("page", "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("name=\"category\"")));
+    }
+
+    @Test
+    void shouldQueryMonthlyAverageWithGetParameters() throws Exception {
+        mockMvc.perform(get("/monthly-average"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("action=\"/monthly-average\" method=\"get\"")));
+        var result = mockMvc.perform(get("/monthly-average").param("category", "Groceries"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("value=\"Groceries\"")))
+                .andReturn();
+        assertNull(result.getRequest().getSession(false));
+    }
+
+    @Test
+    void shouldAnswerRepeatedQueryWithNotModified() throws Exception {
+        ingestion.awaitFinished();
+        String etag = mockMvc.perform(get("/highest-spend").param("category", "Groceries").param("year", "2020"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/highest-spend").param("category", "Groceries").param("year", "2020")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/highest-spend").param("category", "Groceries").param("year", "2020")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-0\""))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,117 @@
+package org.banktransaction;
+
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.ExportFormat;
+import org.banktransaction.dto.ExportStats;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.TransactionBatchWriter;
+import org.banktransaction.service.TransactionExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "ingestion.on-startup=false")
+class TransactionExporterTest {
+    @Autowired
+    private TransactionExporter exporter;
+    @Autowired
+    private TransactionBatchWriter writer;
+
+    private String category;
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() {
+        category = UUID.randomUUID().toString();
+        transactions = new SyntheticTransactions(29).list(70_000).stream()
+                .peek(elem -> elem.setCategory(category))
+                .collect(Collectors.toList());
+        transactions.add(Transaction.builder()
+                .date(LocalDate.of(2022, 1, 1))
+                .vendor("Smith, \"Sons\"")
+                .type(Transaction.TransactionType.CARD)
+                .amount(new BigDecimal("12.50"))
+                .category(category)
+                .build());
+        for (int from = 0; from < transactions.size(); from += 10_000) {
+            writer.write(transactions.subList(from, Math.min(from + 10_000, transactions.size())));
+        }
+    }
+
+    @Test
+    void shouldExportCsvLatestFirst() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportStats stats = exporter.export(ExportFormat.CSV, category, null, null, Channels.newChannel(out));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertEquals(transactions.size(), stats.getRows());
+        assertEquals(out.size(), stats.getBytes());
+        assertEquals(transactions.size() + 1, lines.size());
+        assertEquals("date,vendor,type,amount,category,account", lines.get(0));
+        assertEquals("2022-01-01,\"Smith, \"\"Sons\"\"\",CARD,12.50," + category + ",", lines.get(1));
+        Transaction oldest = transactions.stream().min(Comparator.comparing(Transaction::getDate)).orElseThrow();
+        assertEquals(oldest.getDate().toString(), lines.get(lines.size() - 1).substring(0, 10));
+    }
+
+    @Test
+    void shouldExportColumnarBlocksOfTheDateRange() throws IOException {
+        LocalDate from = LocalDate.of(2016, 1, 1);
+        LocalDate to = LocalDate.of(2021, 12, 31);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportStats stats = exporter.export(ExportFormat.COLUMNAR, category, from, to, Channels.newChannel(out));
+
+        List<Transaction> expected = transactions.stream()
+                .filter(elem -> !elem.getDate().isBefore(from) && !elem.getDate().isAfter(to))
+                .collect(Collectors.toList());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(0x42545843, in.readInt());
+        assertEquals(1, in.readInt());
+        List<String> strings = new ArrayList<>();
+        long rows = 0;
+        long total = 0;
+        int blocks = 0;
+        for (int size = in.readInt(); size > 0; size = in.readInt()) {
+            blocks++;
+            int newStrings = in.readInt();
+            for (int i = 0; i < newStrings; i++) {
+                strings.add(new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8));
+            }
+            in.skipNBytes(4L * size);
+            for (int i = 0; i < size; i++) {
+                total += in.readLong();
+            }
+            in.skipNBytes(size + 4L * size);
+            for (int i = 0; i < size; i++) {
+                assertEquals(category, strings.get(in.readInt()));
+            }
+            in.skipNBytes(4L * size);
+            rows += size;
+        }
+        in.readInt();
+        assertEquals(rows, in.readLong());
+        assertEquals(expected.size(), rows);
+        assertEquals(expected.size(), stats.getRows());
+        assertEquals(2, blocks);
+        assertEquals(expected.stream().map(Transaction::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add),
+                BigDecimal.valueOf(total, 2));
+    }
+}
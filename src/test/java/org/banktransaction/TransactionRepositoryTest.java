@@ -0,0 +1,73 @@
+package org.banktransaction;
+
+import org.banktransaction.dto.TransactionCursor;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class TransactionRepositoryTest {
+    @Autowired
+    private TransactionRepository repository;
+    private Transaction transaction1;
+    private Transaction transaction2;
+    private Transaction transaction3;
+    private Transaction transaction4;
+
+    @BeforeEach
+    void setUp() {
+        transaction1 = transaction("2020-03-05", "1475.03", "MyMonthlyDD");
+        transaction2 = transaction("2020-11-18", "75.03", " mymonthlydd ");
+        transaction3 = transaction("2021-01-17", "775.03", "MyMonthlyDD");
+        transaction4 = transaction("2020-03-05", "877.03", null);
+        repository.saveAll(List.of(transaction1, transaction2, transaction3, transaction4));
+    }
+
+    @Test
+    void shouldFindByCategoryIgnoringCaseAndSpacesLatestFirst() {
+        List<Transaction> expected = List.of(transaction3, transaction2, transaction1);
+        assertEquals(expected, repository.findByCategory("MYMONTHLYDD "));
+    }
+
+    @Test
+    void shouldFindMissingCategoryByEmptyCategory() {
+        assertEquals(List.of(transaction4), repository.findByCategory(""));
+    }
+
+    @Test
+    void shouldPageByCategoryAndYear() {
+        var page = repository.findByCategoryAndYear("MyMonthlyDD", 2020, PageRequest.of(0, 1));
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals(1, repository.findByYear(2021, PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void shouldFindHighestAndLowestSpendByCategoryAndYear() {
+        assertEquals(transaction1, repository.findHighestSpendByCategoryAndYear("MyMonthlyDD", 2020).orElseThrow());
+        assertEquals(transaction2, repository.findLowestSpendByCategoryAndYear("MyMonthlyDD", 2020).orElseThrow());
+        assertTrue(repository.findLowestSpendByCategoryAndYear("MyMonthlyDD", 2000).isEmpty());
+    }
+
+    @Test
+    void shouldPageWithKeysetCursorBreakingDateTiesById() {
+        List<Transaction> first = repository.findPage(null, null, 2);
+        assertEquals(List.of(transaction3, transaction2), first);
+        List<Transaction> second = repository.findPage(null, TransactionCursor.after(first.get(1)), 2);
+        assertEquals(List.of(transaction4, transaction1), second);
+        assertTrue(repository.findPage(null, TransactionCursor.after(second.get(1)), 2).isEmpty());
+
+        List<Transaction> byCategory = repository.findPage(" MyMonthlyDD", TransactionCursor.after(transaction2), 10);
+        assertEquals(List.of(transaction1), byCategory);
+    }
+}
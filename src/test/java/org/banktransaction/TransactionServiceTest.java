@@ -1,9 +1,15 @@
 package org.banktransaction;
 
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.entity.CategoryDictionary;
 import org.banktransaction.entity.Transaction;
 import org.banktransaction.exception.FileCanNotBeParsedException;
 import org.banktransaction.exception.FileCanNotBeReadException;
 import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.CategoryTotalsIndex;
+import org.banktransaction.service.ParallelAggregator;
+import org.banktransaction.service.SpendRankIndex;
+import org.banktransaction.service.TransactionJsonReader;
 import org.banktransaction.service.TransactionService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,13 +19,28 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 @SpringBootTest
@@ -37,7 +58,8 @@ class TransactionServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new TransactionService(repository);
+        service = new TransactionService(repository, event -> { }, new CategoryTotalsIndex(), new SpendRankIndex(2),
+                new ParallelAggregator(true, 10000, 0));
         transaction1 = Transaction.builder()
                 .amount(new BigDecimal("845.03"))
                 .vendor("Vendor1")
@@ -107,6 +129,69 @@ class TransactionServiceTest {
         assertEquals(FileCanNotBeParsedException.class, exception.getClass());
     }
 
+    @Test
+    void shouldStreamFileIntoRepository() {
+        String fileDir = "src/test/resources/test-data.json";
+        long actual = service.streamFileAndSaveInRepository(fileDir);
+        assertEquals(transactions.size(), actual);
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldReadTransactionsOneByOne() throws IOException {
+        String fileDir = "src/test/resources/test-data.json";
+        List<Transaction> actual = new ArrayList<>();
+        try (TransactionJsonReader reader = new TransactionJsonReader(fileDir)) {
+            Transaction transaction;
+            while ((transaction = reader.next()) != null) {
+                actual.add(transaction);
+            }
+        }
+        assertEquals(transactions, actual);
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeReadExceptionIfStreamedFilesPathNotValid() {
+        String fileDir = "wrong";
+        Throwable exception = Assertions.assertThrows(
+                FileCanNotBeReadException.class, () -> service.streamFileAndSaveInRepository(fileDir));
+        assertEquals("Can't find the file. There is a problem with a file's path, it can not be read!", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeParsedExceptionIfStreamedJsonFileDataIsNotValid() {
+        String fileDir = "src/test/resources/incorrect-test-data.json";
+        Throwable exception = Assertions.assertThrows(
+                FileCanNotBeParsedException.class, () -> service.streamFileAndSaveInRepository(fileDir));
+        assertEquals("There is a problem with parsing. Json data is not valid", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeParsedExceptionIfStreamedRecordHasNoDate() throws IOException {
+        assertStreamedRecordIsRejected("{\"vendor\":\"Vendor1\",\"type\":\"CARD\",\"amount\":\"1.00\",\"category\":\"Groceries\"}");
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeParsedExceptionIfStreamedRecordHasNoType() throws IOException {
+        assertStreamedRecordIsRejected("{\"date\":\"06/Dec/2021\",\"vendor\":\"Vendor1\",\"amount\":\"1.00\",\"category\":\"Groceries\"}");
+    }
+
+    @Test
+    void shouldThrowsFileCanNotBeParsedExceptionIfStreamedRecordHasNoAmount() throws IOException {
+        assertStreamedRecordIsRejected("{\"date\":\"06/Dec/2021\",\"vendor\":\"Vendor1\",\"type\":\"CARD\",\"category\":\"Groceries\"}");
+    }
+
+    private void assertStreamedRecordIsRejected(String record) throws IOException {
+        Path file = Files.createTempFile("statement", ".json");
+        try {
+            Files.writeString(file, "[" + record + "]");
+            Assertions.assertThrows(
+                    FileCanNotBeParsedException.class, () -> service.streamFileAndSaveInRepository(file.toString()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     @Test
     void shouldSortAsLatestFirst() {
         List<Transaction> expected = List.of(transaction1, transaction3, transaction2, transaction4, transaction5);
@@ -124,6 +209,50 @@ class TransactionServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldKeepCategoryTotalsIndexConsistentWithFullScan() {
+        CategoryTotalsIndex index = new CategoryTotalsIndex();
+        index.add(transactions.subList(0, 2));
+        index.add(transactions.subList(2, transactions.size()));
+        assertEquals(service.getCategoryToOutgoing(transactions), index.getCategoryToOutgoing());
+    }
+
+    @Test
+    void shouldRebuildCategoryTotalsFromRepository() {
+        stubPages(transactions);
+        service.rebuildCategoryTotals();
+        assertEquals(service.getCategoryToOutgoing(transactions), service.getCategoryToOutgoing());
+        assertTrue(service.isCategoryTotalsConsistent());
+    }
+
+    @Test
+    void shouldAggregateInParallelExactlyAsSequentially() {
+        List<Transaction> transactions = new SyntheticTransactions(7).list(50_000);
+        TransactionService parallel = new TransactionService(repository, event -> { }, new CategoryTotalsIndex(),
+                new SpendRankIndex(2), new ParallelAggregator(true, 1000, 4));
+        TransactionService sequential = new TransactionService(repository, event -> { }, new CategoryTotalsIndex(),
+                new SpendRankIndex(2), new ParallelAggregator(false, 1000, 4));
+
+        assertEquals(sequential.getCategoryToOutgoing(transactions), parallel.getCategoryToOutgoing(transactions));
+        for (String category : SyntheticTransactions.CATEGORIES) {
+            assertEquals(sequential.getMonthlyAverageSpendToCategory(new ArrayList<>(transactions), category),
+                    parallel.getMonthlyAverageSpendToCategory(transactions, category));
+        }
+        assertEquals(Map.of("none", new BigDecimal("0.00")),
+                parallel.getMonthlyAverageSpendToCategory(transactions, "none"));
+    }
+
+    @Test
+    void shouldGetHighestLowestAndTopSpendsFromSpendRankIndex() {
+        stubPages(transactions);
+        service.rebuildIndexes();
+        assertEquals(Optional.of(transaction4), service.getHighestSpendByCategoryAndYear(2020, " mymonthlydd"));
+        assertEquals(Optional.of(transaction2), service.getLowestSpendByCategoryAndYear(2020, "MyMonthlyDD"));
+        assertEquals(Optional.empty(), service.getHighestSpendByCategoryAndYear(2000, "MyMonthlyDD"));
+        assertEquals(List.of(transaction4, transaction2), service.getTopSpendsByCategoryAndYear(2020, "MyMonthlyDD", 5));
+        assertEquals(List.of(transaction4), service.getTopSpendsByCategoryAndYear(2020, "MyMonthlyDD", 1));
+    }
+
     @Test
     void shouldGetTransactionsByGroceriesCategory() {
         String category = "Groceries";
@@ -132,6 +261,39 @@ class TransactionServiceTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldMatchMissingCategoryAsEmptyWithoutChangingTheList() {
+        Transaction uncategorized = Transaction.builder()
+                .amount(new BigDecimal("10.00"))
+                .vendor("Vendor6")
+                .type(Transaction.TransactionType.CARD)
+                .date(LocalDate.parse("2021-03-05"))
+                .build();
+        List<Transaction> withMissingCategory = List.of(transaction1, uncategorized, transaction5);
+
+        List<Transaction> actual = service.getTransactionsByCategory(withMissingCategory, " ");
+
+        assertEquals(2, actual.size());
+        assertEquals("", actual.get(0).getCategory());
+        assertEquals(uncategorized.getAmount(), actual.get(0).getAmount());
+        assertEquals(transaction5, actual.get(1));
+        assertNull(uncategorized.getCategory());
+        assertEquals(List.of(), service.getTransactionsByCategory(withMissingCategory, UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void shouldInternCategoriesCaseInsensitively() {
+        String category = "Category " + UUID.randomUUID();
+        assertEquals(CategoryDictionary.UNKNOWN, CategoryDictionary.find(category));
+
+        int id = CategoryDictionary.idOf(category);
+
+        assertEquals(id, CategoryDictionary.find("  " + category.toUpperCase() + " "));
+        assertEquals(Transaction.categoryKeyOf(category), CategoryDictionary.keyOf(id));
+        assertEquals(CategoryDictionary.UNCATEGORIZED, CategoryDictionary.idOf(null));
+        assertEquals(CategoryDictionary.UNCATEGORIZED, CategoryDictionary.find("  "));
+    }
+
     @Test
     void shouldGetMonthlyAverageSpendInCategory() {
         Map<String, BigDecimal> expected = new HashMap<>();
@@ -231,4 +393,11 @@ class TransactionServiceTest {
         assertEquals(expected, actual);
     }
 
+    private void stubPages(List<Transaction> transactions) {
+        for (int i = 0; i < transactions.size(); i++) {
+            transactions.get(i).setId(i + 1L);
+        }
+        when(repository.findPage(null, null, TransactionService.BATCH_SIZE)).thenReturn(transactions);
+        doCallRealMethod().when(repository).forEachPage(anyInt(), any());
+    }
 }
@@ -0,0 +1,87 @@
+package org.banktransaction;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.TransactionBatchWriter;
+import org.banktransaction.service.TransactionSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class TransactionSnapshotTest {
+    @Autowired
+    private TransactionRepository repository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    Path dir;
+    private TransactionSnapshot snapshot;
+    private String source;
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshot = new TransactionSnapshot(repository, new TransactionBatchWriter(jdbcTemplate, event -> { }, transactionManager),
+                true, dir.toString());
+        source = Files.copy(Paths.get("src/test/resources/test-data.json"), dir.resolve("data.json")).toString();
+        transactions = List.of(
+                transaction("2020-03-05", "1475.03", "MyMonthlyDD", Transaction.TransactionType.CARD),
+                transaction("2020-11-18", "75.10", "Żabka", Transaction.TransactionType.INTERNET),
+                transaction("2021-01-17", "0.99", null, null));
+        repository.saveAll(transactions);
+        repository.flush();
+    }
+
+    @Test
+    void shouldLoadTheTransactionsThatWereWritten() throws IOException {
+        assertEquals(3, snapshot.write(source));
+        repository.deleteAllInBatch();
+
+        assertEquals(OptionalLong.of(3), snapshot.load(source));
+        assertEquals(new HashSet<>(transactions), new HashSet<>(repository.findAll()));
+    }
+
+    @Test
+    void shouldIgnoreSnapshotOfChangedSourceFile() throws IOException {
+        snapshot.write(source);
+        Path sourceFile = Paths.get(source);
+        Files.setLastModifiedTime(sourceFile, FileTime.fromMillis(Files.getLastModifiedTime(sourceFile).toMillis() + 1000));
+
+        assertTrue(snapshot.load(source).isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreCorruptSnapshot() throws IOException {
+        snapshot.write(source);
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.snapshotOf(source).toFile(), "rw")) {
+            file.seek(70);
+            int flipped = file.read() ^ 0xFF;
+            file.seek(70);
+            file.write(flipped);
+        }
+
+        assertTrue(snapshot.load(source).isEmpty());
+        assertEquals(3, repository.count());
+    }
+}
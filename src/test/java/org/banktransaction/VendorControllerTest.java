@@ -0,0 +1,87 @@
+package org.banktransaction;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.StartupIngestion;
+import org.banktransaction.service.TransactionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.banktransaction.TestTransactions.transaction;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"transactions.file-dir=src/test/resources/test-data.json", "snapshot.enabled=false"})
+@AutoConfigureMockMvc
+class VendorControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private StartupIngestion ingestion;
+    @Autowired
+    private TransactionService service;
+    private String category;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        ingestion.awaitFinished();
+        category = UUID.randomUUID().toString();
+        service.saveBatch(List.of(
+                ofVendor("Corner Shop", "10.00"),
+                ofVendor("Corner Shop", "10.00"),
+                ofVendor("Corner Shop", "10.00"),
+                ofVendor("Airline", "50.00")));
+    }
+
+    @Test
+    void shouldRankVendorsOfCategoryExactly() throws Exception {
+        mockMvc.perform(get("/api/vendors/top").param("category", category).param("exact", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exact").value(true))
+                .andExpect(jsonPath("$.vendors.length()").value(2))
+                .andExpect(jsonPath("$.vendors[0].vendor").value("Airline"))
+                .andExpect(jsonPath("$.vendors[0].total").value(50.0))
+                .andExpect(jsonPath("$.vendors[1].vendor").value("Corner Shop"))
+                .andExpect(jsonPath("$.vendors[1].total").value(30.0));
+        mockMvc.perform(get("/api/vendors/top").param("category", category).param("by", "count")
+                        .param("exact", "true").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vendors.length()").value(1))
+                .andExpect(jsonPath("$.vendors[0].vendor").value("Corner Shop"))
+                .andExpect(jsonPath("$.vendors[0].transactions").value(3));
+    }
+
+    @Test
+    void shouldEstimateTopVendorsOfCategory() throws Exception {
+        mockMvc.perform(get("/api/vendors/top").param("category", category).param("by", "count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exact").value(false))
+                .andExpect(jsonPath("$.by").value("count"))
+                .andExpect(jsonPath("$.vendors[0].vendor").value("Corner Shop"));
+    }
+
+    @Test
+    void shouldRejectInvalidRanking() throws Exception {
+        mockMvc.perform(get("/api/vendors/top").param("by", "amount"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/vendors/top").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/vendors/top").param("limit", "101"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/vendors/top").param("limit", "1001").param("exact", "true"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Transaction ofVendor(String vendor, String amount) {
+        Transaction transaction = transaction("2021-06-01", amount, category);
+        transaction.setVendor(vendor);
+        return transaction;
+    }
+}
@@ -0,0 +1,75 @@
+package org.banktransaction;
+
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.TopVendors;
+import org.banktransaction.dto.VendorSpend;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.MonthPartitionedStore;
+import org.banktransaction.service.VendorHeavyHitters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VendorHeavyHittersTest {
+    private List<Transaction> transactions;
+    private VendorHeavyHitters heavyHitters;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new SyntheticTransactions(5).list(50_000);
+        MonthPartitionedStore store = new MonthPartitionedStore();
+        store.add(transactions);
+        heavyHitters = new VendorHeavyHitters(store, 0.001, 0.01, 20);
+        heavyHitters.add(transactions);
+    }
+
+    @Test
+    void shouldEstimateTopVendorsWithinTheErrorBound() {
+        for (String category : new String[]{null, "Groceries"}) {
+            for (boolean byCount : new boolean[]{false, true}) {
+                TopVendors estimated = heavyHitters.getTop(category, byCount, 5);
+                TopVendors exact = heavyHitters.getExactTop(category, byCount, 5);
+
+                assertEquals(names(exact.getVendors()), names(estimated.getVendors()));
+                Map<String, VendorSpend> actual = exact.getVendors().stream()
+                        .collect(Collectors.toMap(VendorSpend::getVendor, elem -> elem));
+                for (VendorSpend vendor : estimated.getVendors()) {
+                    BigDecimal estimate = byCount ? BigDecimal.valueOf(vendor.getTransactions()) : vendor.getTotal();
+                    BigDecimal truth = byCount ? BigDecimal.valueOf(actual.get(vendor.getVendor()).getTransactions())
+                            : actual.get(vendor.getVendor()).getTotal();
+                    assertTrue(estimate.compareTo(truth) >= 0);
+                    assertTrue(estimate.subtract(truth).compareTo(estimated.getMaxOverestimate()) <= 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldRankExactlyLikeAFullScan() {
+        Map<String, Long> counts = transactions.stream()
+                .collect(Collectors.groupingBy(Transaction::getVendor, Collectors.counting()));
+        List<Long> largest = counts.values().stream().sorted((a, b) -> Long.compare(b, a)).limit(3)
+                .collect(Collectors.toList());
+
+        List<VendorSpend> top = heavyHitters.getExactTop(null, true, 3).getVendors();
+
+        assertEquals(largest, top.stream().map(VendorSpend::getTransactions).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldFindNoVendorsOfUnknownCategory() {
+        assertEquals(List.of(), heavyHitters.getTop("no such category", false, 5).getVendors());
+        assertEquals(List.of(), heavyHitters.getExactTop("no such category", false, 5).getVendors());
+    }
+
+    private static List<String> names(List<VendorSpend> vendors) {
+        return vendors.stream().map(VendorSpend::getVendor).collect(Collectors.toList());
+    }
+}
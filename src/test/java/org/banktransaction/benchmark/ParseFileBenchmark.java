@@ -0,0 +1,61 @@
+package org.banktransaction.benchmark;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.CategoryTotalsIndex;
+import org.banktransaction.service.ParallelAggregator;
+import org.banktransaction.service.SpendRankIndex;
+import org.banktransaction.service.TransactionJsonReader;
+import org.banktransaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a data.json style file with the json-simple {@code parseFile} and with the streaming reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class ParseFileBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    private TransactionService service;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        service = new TransactionService(null, event -> { }, new CategoryTotalsIndex(), new SpendRankIndex(10),
+                new ParallelAggregator(true, 10000, 0));
+        file = Files.createTempFile("transactions-" + rows + "-", ".json");
+        new SyntheticTransactions(42).writeJson(file, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<Transaction> parseFile() throws IOException {
+        return service.parseFile(file.toString());
+    }
+
+    @Benchmark
+    public void streamFile(Blackhole blackhole) throws IOException {
+        try (TransactionJsonReader reader = new TransactionJsonReader(file.toString())) {
+            Transaction transaction;
+            while ((transaction = reader.next()) != null) {
+                blackhole.consume(transaction);
+            }
+        }
+    }
+}
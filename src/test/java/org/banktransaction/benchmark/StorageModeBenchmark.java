@@ -0,0 +1,92 @@
+package org.banktransaction.benchmark;
+
+import org.banktransaction.Application;
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.repository.TransactionRepository;
+import org.banktransaction.service.TransactionBatchWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Ingest and query throughput of the in-memory database and of the file-backed one of the {@code durable} profile,
+ * over {@code rows} transactions saved before measuring. {@code ingest} is reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StorageModeBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"memory", "durable"})
+    public String storage;
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private Path dir;
+    private ConfigurableApplicationContext context;
+    private TransactionBatchWriter writer;
+    private TransactionRepository repository;
+    private SyntheticTransactions generator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("storage-benchmark-");
+        context = new SpringApplicationBuilder(Application.class)
+                .profiles(storage.equals("durable") ? new String[]{"durable"} : new String[0])
+                .properties("spring.main.web-application-type=none", "ingestion.on-startup=false",
+                        "snapshot.enabled=false", "storage.dir=" + dir)
+                .run();
+        writer = context.getBean(TransactionBatchWriter.class);
+        repository = context.getBean(TransactionRepository.class);
+        generator = new SyntheticTransactions(42);
+        for (int saved = 0; saved < rows; saved += BATCH_SIZE) {
+            writer.write(generator.list(Math.min(BATCH_SIZE, rows - saved)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int ingest() {
+        return writer.write(generator.list(BATCH_SIZE));
+    }
+
+    @Benchmark
+    public List<Transaction> firstPageByCategory() {
+        return repository.findPage("Groceries", null, 100);
+    }
+
+    @Benchmark
+    public Page<Transaction> pageByCategoryAndYear() {
+        return repository.findByCategoryAndYear("Eating Out", 2020, PageRequest.of(0, 100));
+    }
+
+    @Benchmark
+    public Optional<Transaction> highestSpendByCategoryAndYear() {
+        return repository.findHighestSpendByCategoryAndYear("Groceries", 2021);
+    }
+}
@@ -0,0 +1,111 @@
+package org.banktransaction.benchmark;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.TransactionJsonReader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator of transactions that look like real statements: a few categories and vendors take most of the
+ * rows (Zipf distributed), recent dates are more frequent than old ones and amounts are log-normal. Accounts are
+ * uniform and drawn from their own generator, so the other fields don't depend on them.
+ */
+public class SyntheticTransactions {
+    public static final String[] CATEGORIES = {
+            "Groceries", "MyMonthlyDD", "Eating Out", "Transport", "Utilities", "Entertainment", "Shopping",
+            "Travel", "Health", "Insurance", "Education", "Gifts", "Charity", "Pets", "Home", "Subscriptions",
+            "Fuel", "Clothing", "Fees", ""};
+    private static final int VENDORS = 5000;
+    private static final int ACCOUNTS = 200;
+    private static final int DAYS = 5 * 365;
+    private static final LocalDate LAST_DAY = LocalDate.of(2021, 12, 31);
+    private static final Transaction.TransactionType[] TYPES = Transaction.TransactionType.values();
+
+    private final Random random;
+    private final Random accounts;
+    private final double[] categoryWeights = zipfCumulative(CATEGORIES.length, 1.1);
+    private final double[] vendorWeights = zipfCumulative(VENDORS, 1.0);
+
+    public SyntheticTransactions(long seed) {
+        this.random = new Random(seed);
+        this.accounts = new Random(~seed);
+    }
+
+    public Transaction next() {
+        LocalDate date = LAST_DAY.minusDays((long) (DAYS * (1 - Math.sqrt(random.nextDouble()))));
+        long minorUnits = Math.max(1, Math.round(Math.exp(3.5 + 1.2 * random.nextGaussian()) * 100));
+        return Transaction.builder()
+                .date(date)
+                .vendor("Vendor" + pick(vendorWeights))
+                .type(TYPES[random.nextInt(TYPES.length)])
+                .amount(BigDecimal.valueOf(minorUnits, 2))
+                .category(CATEGORIES[pick(categoryWeights)])
+                .account(String.format("ACC%04d", accounts.nextInt(ACCOUNTS)))
+                .build();
+    }
+
+    public List<Transaction> list(int rows) {
+        List<Transaction> transactions = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            transactions.add(next());
+        }
+        return transactions;
+    }
+
+    /**
+     * Writes the rows in the format of data.json.
+     */
+    public void writeJson(Path file, long rows) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write('[');
+            for (long i = 0; i < rows; i++) {
+                Transaction transaction = next();
+                writer.write(i == 0 ? "{" : ",\n{");
+                writer.write("\"date\":\"" + transaction.getDate().format(TransactionJsonReader.DATE_FORMATTER) + "\",");
+                writer.write("\"vendor\":\"" + transaction.getVendor() + "\",");
+                writer.write("\"type\":\"" + transaction.getType().name() + "\",");
+                writer.write("\"amount\":\"" + transaction.getAmount().toPlainString() + "\",");
+                writer.write("\"category\":\"" + transaction.getCategory() + "\",");
+                writer.write("\"account\":\"" + transaction.getAccount() + "\"}");
+            }
+            writer.write(']');
+        }
+    }
+
+    private int pick(double[] cumulativeWeights) {
+        double target = random.nextDouble();
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] < target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 1; rank <= size; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+}
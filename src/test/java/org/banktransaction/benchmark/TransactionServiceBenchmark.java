@@ -0,0 +1,64 @@
+package org.banktransaction.benchmark;
+
+import org.banktransaction.entity.Transaction;
+import org.banktransaction.service.CategoryTotalsIndex;
+import org.banktransaction.service.ParallelAggregator;
+import org.banktransaction.service.SpendRankIndex;
+import org.banktransaction.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query methods of {@link TransactionService} over lists of synthetic transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class TransactionServiceBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private TransactionService service;
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new TransactionService(null, event -> { }, new CategoryTotalsIndex(), new SpendRankIndex(10),
+                new ParallelAggregator(parallel, 10000, 0));
+        transactions = new SyntheticTransactions(42).list(rows);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> getCategoryToOutgoing() {
+        return service.getCategoryToOutgoing(transactions);
+    }
+
+    @Benchmark
+    public List<Transaction> getTransactionsByCategory() {
+        return service.getTransactionsByCategory(transactions, "Groceries");
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> getMonthlyAverageSpendToCategory() {
+        return service.getMonthlyAverageSpendToCategory(transactions, "Groceries");
+    }
+
+    @Benchmark
+    public Transaction getHighestSpendByCategoryAndYear() {
+        return service.getHighestSpendByCategoryAndYear(2021, "Groceries", transactions);
+    }
+
+    @Benchmark
+    public Transaction getLowestSpendByCategoryAndYear() {
+        return service.getLowestSpendByCategoryAndYear(2021, "Groceries", transactions);
+    }
+}
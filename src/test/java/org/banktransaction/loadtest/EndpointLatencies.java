@@ -0,0 +1,52 @@
+package org.banktransaction.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every latency recorded for one endpoint, kept exactly so the high percentiles are not approximated.
+ */
+class EndpointLatencies {
+    private long[] nanos = new long[1024];
+    private int count;
+    private int errors;
+
+    synchronized void record(long latencyNanos, boolean error) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    /**
+     * @param elapsedNanos length of the measurement, used for the throughput
+     */
+    synchronized Map<String, Object> summary(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", count * 1_000_000_000d / elapsedNanos);
+        summary.put("p50Millis", percentile(sorted, 0.50));
+        summary.put("p99Millis", percentile(sorted, 0.99));
+        summary.put("p999Millis", percentile(sorted, 0.999));
+        summary.put("maxMillis", sorted.length == 0 ? 0d : sorted[sorted.length - 1] / 1_000_000d);
+        return summary;
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1_000_000d;
+    }
+}
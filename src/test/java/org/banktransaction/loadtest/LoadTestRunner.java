@@ -0,0 +1,245 @@
+package org.banktransaction.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.banktransaction.Application;
+import org.banktransaction.benchmark.SyntheticTransactions;
+import org.banktransaction.dto.IngestionStatus;
+import org.banktransaction.service.StartupIngestion;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Starts the application on a random local port against a generated dataset and, once it is loaded, drives it with
+ * concurrent users.
+ * Every user keeps the ETags of the pages it got and revalidates with {@code If-None-Match}, like a browser, so
+ * repeated queries on unchanged data are answered with a 304.
+ * Prints throughput and p50/p99/p999 latency per endpoint and writes them as JSON.
+ * <p>
+ * Options: {@code --rows 100000 --users 8 --warmup 10 --duration 30 --seed 42 --result target/load-test-result.json
+ * --threads platform}. {@code --threads virtual} serves the requests on virtual threads (Java 21+) and
+ * {@code --threads both} runs the test once per mode on a fresh application and compares their throughput, e.g. with
+ * {@code --users 400} to go past the 200 threads of the Tomcat pool.
+ */
+public class LoadTestRunner {
+    private static final int[] YEARS = {2017, 2018, 2019, 2020, 2021};
+
+    private final Map<String, EndpointLatencies> latencies = new ConcurrentSkipListMap<>();
+    private final String baseUrl;
+    private volatile long recordFrom = Long.MAX_VALUE;
+
+    LoadTestRunner(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        long rows = Long.parseLong(options.getOrDefault("rows", "100000"));
+        int users = Integer.parseInt(options.getOrDefault("users", "8"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Path result = Paths.get(options.getOrDefault("result", "target/load-test-result.json"));
+        String threads = options.getOrDefault("threads", "platform");
+        List<String> modes = threads.equals("both") ? List.of("platform", "virtual") : List.of(threads);
+        if (modes.contains("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, this is " + Runtime.version());
+        }
+
+        Path dataset = Files.createTempFile("load-test-" + rows + "-", ".json");
+        new SyntheticTransactions(seed).writeJson(dataset, rows);
+        Map<String, Double> throughput = new LinkedHashMap<>();
+        try {
+            for (String mode : modes) {
+                ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                        .properties("server.port=0", "transactions.file-dir=" + dataset, "spring.thymeleaf.cache=true",
+                                "snapshot.enabled=false", "spring.threads.virtual.enabled=" + mode.equals("virtual"))
+                        .run();
+                try {
+                    awaitIngestion(context.getBean(StartupIngestion.class));
+                    int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+                    LoadTestRunner runner = new LoadTestRunner(port);
+                    long elapsedNanos = runner.run(users, seed, Duration.ofSeconds(warmupSeconds), Duration.ofSeconds(durationSeconds));
+                    runner.report(rows, users, mode, elapsedNanos, modes.size() == 1 ? result : withSuffix(result, mode));
+                    throughput.put(mode, runner.throughputPerSecond(elapsedNanos));
+                } finally {
+                    context.close();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(dataset);
+        }
+        if (throughput.size() > 1) {
+            System.out.printf("%nThroughput with %d users:%n", users);
+            throughput.forEach((mode, perSecond) -> System.out.printf("%-10s %10.1f req/s%n", mode, perSecond));
+            System.out.printf("virtual/platform %.2fx%n", throughput.get("virtual") / throughput.get("platform"));
+        }
+    }
+
+    private static Path withSuffix(Path result, String mode) {
+        String name = result.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return result.resolveSibling(dot < 0 ? name + "-" + mode : name.substring(0, dot) + "-" + mode + name.substring(dot));
+    }
+
+    /**
+     * @return the length of the measured part of the run in nanoseconds
+     */
+    long run(int users, long seed, Duration warmup, Duration duration) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        recordFrom = System.nanoTime() + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int user = 0; user < users; user++) {
+                Random random = new Random(seed + user);
+                futures.add(executor.submit(() -> {
+                    User client = new User(random);
+                    while (System.nanoTime() < end) {
+                        client.nextFlow();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return duration.toNanos();
+    }
+
+    double throughputPerSecond(long elapsedNanos) {
+        return latencies.values().stream()
+                .mapToLong(endpointLatencies -> ((Number) endpointLatencies.summary(elapsedNanos).get("requests")).longValue())
+                .sum() * 1_000_000_000d / elapsedNanos;
+    }
+
+    void report(long rows, int users, String threads, long elapsedNanos, Path result) throws IOException {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        latencies.forEach((endpoint, endpointLatencies) -> endpoints.put(endpoint, endpointLatencies.summary(elapsedNanos)));
+
+        System.out.printf("%n%s threads%n%-36s %10s %7s %10s %10s %10s %10s%n",
+                threads, "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p999 ms");
+        endpoints.forEach((endpoint, summary) -> {
+            Map<?, ?> values = (Map<?, ?>) summary;
+            System.out.printf("%-36s %10d %7d %10.1f %10.2f %10.2f %10.2f%n", endpoint,
+                    values.get("requests"), values.get("errors"), values.get("throughputPerSecond"),
+                    values.get("p50Millis"), values.get("p99Millis"), values.get("p999Millis"));
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", rows);
+        report.put("users", users);
+        report.put("threads", threads);
+        report.put("durationSeconds", elapsedNanos / 1_000_000_000d);
+        report.put("endpoints", endpoints);
+        if (result.getParent() != null) {
+            Files.createDirectories(result.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(result.toFile(), report);
+        System.out.println("Results written to " + result);
+    }
+
+    private static void awaitIngestion(StartupIngestion ingestion) throws InterruptedException {
+        while (!ingestion.isCompleted()) {
+            if (ingestion.getStatus().getState() == IngestionStatus.State.FAILED) {
+                throw new IllegalStateException("Ingestion failed: " + ingestion.getStatus().getError());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * One browser: its own cache of ETags, by URL.
+     */
+    private class User {
+        private final Random random;
+        private final Map<String, String> etags = new HashMap<>();
+        private final HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        User(Random random) {
+            this.random = random;
+        }
+
+        void nextFlow() throws IOException, InterruptedException {
+            String category = SyntheticTransactions.CATEGORIES[random.nextInt(SyntheticTransactions.CATEGORIES.length)];
+            String year = String.valueOf(YEARS[random.nextInt(YEARS.length)]);
+            switch (random.nextInt(6)) {
+                case 0:
+                    get("/", "");
+                    break;
+                case 1:
+                    get("/", "category=" + encode(category));
+                    break;
+                case 2:
+                    get("/total-outgoing", "");
+                    break;
+                case 3:
+                    get("/monthly-average", "category=" + encode(category));
+                    break;
+                case 4:
+                    get("/highest-spend", "category=" + encode(category) + "&year=" + year);
+                    break;
+                default:
+                    get("/lowest-spend", "category=" + encode(category) + "&year=" + year);
+                    break;
+            }
+        }
+
+        /**
+         * Timed under the path and the names of the query parameters, 304 answers apart.
+         */
+        private void get(String path, String query) throws IOException, InterruptedException {
+            String url = baseUrl + path + (query.isEmpty() ? "" : "?" + query);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+            String etag = etags.get(url);
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            long latency = System.nanoTime() - start;
+            int status = response.statusCode();
+            response.headers().firstValue("ETag").ifPresent(value -> etags.put(url, value));
+            if (start >= recordFrom) {
+                String endpoint = "GET " + path + (query.isEmpty() ? "" : "?" + query.replaceAll("=[^&]*", "="))
+                        + (status == 304 ? " (304)" : "");
+                latencies.computeIfAbsent(endpoint, key -> new EndpointLatencies())
+                        .record(latency, status != 200 && status != 304);
+            }
+        }
+
+        private String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}